@@ -0,0 +1,34 @@
+package db.migration;
+
+import org.example.model.Skills;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Заполняет employees.skills_mask по таблице employee_skills.
+ * Номера битов берутся из {@link Skills}, поэтому миграция на Java, а не на SQL.
+ */
+public class V5__Backfill_skills_mask extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        String bits = Arrays.stream(Skills.values())
+                .map(skill -> "('" + skill.name() + "', " + skill.bit() + "::bigint)")
+                .collect(Collectors.joining(", "));
+
+        String sql = "UPDATE employees e SET skills_mask = m.mask " +
+                "FROM (SELECT s.employee_id, bit_or(k.bit) AS mask " +
+                "      FROM employee_skills s " +
+                "      JOIN (VALUES " + bits + ") AS k(skill, bit) ON k.skill = s.skill " +
+                "      GROUP BY s.employee_id) m " +
+                "WHERE m.employee_id = e.id";
+
+        try (Statement statement = context.getConnection().createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+}
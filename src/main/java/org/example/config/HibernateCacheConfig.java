@@ -0,0 +1,73 @@
+package org.example.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate на Caffeine (через JCache).
+ * <p>
+ * Все регионы создаются здесь с ограничением по размеру; регион, которого нет в списке,
+ * Hibernate создать не может (missing_cache_strategy=fail) - опечатка в имени региона
+ * обнаруживается при старте, а не неограниченным кэшем в продакшене.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String EMPLOYEE_REGION = "employees";
+    public static final String EMPLOYEE_SKILLS_REGION = "employee-skills";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    public static final List<String> REGIONS =
+            List.of(EMPLOYEE_REGION, EMPLOYEE_SKILLS_REGION, QUERY_RESULTS_REGION, UPDATE_TIMESTAMPS_REGION);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.employees.max-size:10000}") long employeesMaxSize,
+            @Value("${app.cache.queries.max-size:2000}") long queriesMaxSize,
+            @Value("${app.cache.expire-after-write:PT30M}") Duration expireAfterWrite) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        cacheManager.createCache(EMPLOYEE_REGION, region(employeesMaxSize, expireAfterWrite));
+        cacheManager.createCache(EMPLOYEE_SKILLS_REGION, region(employeesMaxSize, expireAfterWrite));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(queriesMaxSize, expireAfterWrite));
+        // Метки времени изменения таблиц не вытесняются: без них кэш запросов отдал бы устаревшие данные
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, region(-1, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // maxSize < 0 - без ограничения; expireAfterWrite ограничивает устаревание после записи в БД в обход Hibernate
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setNativeStatisticsEnabled(true);
+        if (maxSize >= 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (expireAfterWrite != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        }
+        return configuration;
+    }
+}
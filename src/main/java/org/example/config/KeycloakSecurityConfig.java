@@ -51,7 +51,7 @@ public class KeycloakSecurityConfig {
         return http
                 .authorizeHttpRequests(auth -> auth
                         // Статические ресурсы - доступны всем
-                        .requestMatchers("/static/**", "/css/**", "/js/**", "/images/**",
+                        .requestMatchers("/static/**", "/css/**", "/js/**", "/images/**", "/photos/**",
                                 "/webjars/**", "/error", "/favicon.ico").permitAll()
 
                         // Публичные страницы - доступны всем
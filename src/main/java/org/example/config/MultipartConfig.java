@@ -0,0 +1,33 @@
+package org.example.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.example.service.PhotoCatalog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Буфер multipart - подкаталог каталога фото (PhotoCatalog.getIncomingDirectory()) по абсолютному пути.
+ * Относительный spring.servlet.multipart.location Tomcat разрешает от своего рабочего каталога,
+ * а не от каталога приложения. Из того же файлового тома PhotoStorage переносит загрузку
+ * переименованием.
+ * <p>
+ * Предел части multipart - app.photos.max-size: контейнер обрывает слишком большую загрузку,
+ * не дописывая ее на диск. Тот же предел действует для файла импорта.
+ */
+@Configuration
+public class MultipartConfig {
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement(MultipartProperties properties, PhotoCatalog photoCatalog,
+                                                         @Value("${app.photos.max-size:5MB}") DataSize photoMaxSize) {
+        MultipartConfigElement defaults = properties.createMultipartConfig();
+        long maxFileSize = photoMaxSize.toBytes();
+        // Весь запрос - не меньше одной части: иначе предел части не имеет смысла
+        long maxRequestSize = Math.max(defaults.getMaxRequestSize(), maxFileSize);
+        return new MultipartConfigElement(photoCatalog.getIncomingDirectory().toString(),
+                maxFileSize, maxRequestSize, defaults.getFileSizeThreshold());
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.config;
+
+import org.example.service.PhotoCatalog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Раздача фото из хранилища по содержимому (PhotoStorage): имя файла - хэш содержимого,
+ * поэтому ответ можно кэшировать навсегда и не перепроверять.
+ */
+@Configuration
+public class PhotoResourceConfig implements WebMvcConfigurer {
+
+    // Каталог берется из настройки, а не из PhotoCatalog: конфигурации MVC не зависят от сервисов
+    private final Path directory;
+
+    public PhotoResourceConfig(@Value(PhotoCatalog.DIRECTORY_PROPERTY) String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(PhotoCatalog.BLOB_URL_PREFIX + "**")
+                .addResourceLocations("file:" + directory + "/")
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+    }
+}
@@ -6,9 +6,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.Employee;
+import org.example.model.RatingStats;
 import org.example.model.Review;
 import org.example.model.Skills;
+import org.example.model.dto.CursorPage;
+import org.example.model.dto.EmployeeDetailView;
+import org.example.model.dto.EmployeeListRow;
+import org.example.model.dto.EmployeePageBundle;
 import org.example.service.EmployeeService;
+import org.example.service.PhotoCatalog;
+import org.example.service.PhotoStorage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -27,12 +34,10 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -40,10 +45,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class EmployeeController {
     private final EmployeeService employeeService;
+    private final PhotoCatalog photoCatalog;
+    private final PhotoStorage photoStorage;
 
-    private static final String UPLOAD_DIR = "src/main/resources/static/images/";
-    private static final List<String> ALLOWED_IMAGE_TYPES = List.of("image/jpeg", "image/png", "image/webp");
-    private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
+    private static final int REVIEWS_PAGE_SIZE = 20;
 
     @GetMapping("/home")
     public String homePage() {
@@ -60,25 +65,34 @@ public class EmployeeController {
             @RequestParam(required = false) List<String> department,
             @RequestParam(required = false) List<String> position,
             @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeRatings,
             Model model) {
 
         int pageSize = 10;
         try {
+            if (cursor != null) {
+                return listEmployeesByCursor(name, category, skill, department, position, active, cursor, pageSize,
+                        includeRatings, model);
+            }
+
             log.debug("Загрузка сотрудников для страницы: {}, размер страницы: {}", page, pageSize);
 
-            // Используем пагинацию через Pageable
+            // Строки, итоги и справочники фильтров - одним запросом
             Pageable pageable = PageRequest.of(page, pageSize);
-            Page<Employee> employeePage = employeeService.findWithFilters(
+            EmployeePageBundle bundle = employeeService.findListPage(
                     name, category, skill, department, position, active, pageable
             );
+            Page<EmployeeListRow> employeePage = bundle.page();
 
             long totalEmployees = employeePage.getTotalElements();
-            long activeEmployees = employeeService.countActiveWithFilters(name, category, skill, department, position);
+            long activeEmployees = bundle.activeTotal();
 
-            List<String> departments = employeeService.findAllDistinctDepartments();
-            List<String> positions = employeeService.findAllDistinctPositions();
+            List<String> departments = bundle.departments();
+            List<String> positions = bundle.positions();
 
             model.addAttribute("employees", employeePage.getContent());
+            addRatings(includeRatings, model);
             model.addAttribute("currentPage", page);
             model.addAttribute("totalPages", employeePage.getTotalPages());
             model.addAttribute("totalEmployees", totalEmployees);
@@ -104,6 +118,46 @@ public class EmployeeController {
         return "employees";
     }
 
+    // Keyset-режим списка: вместо номера страницы - непрозрачный курсор (name, id)
+    private String listEmployeesByCursor(String name, String category, String skill,
+                                         List<String> department, List<String> position, Boolean active,
+                                         String cursor, int pageSize, boolean includeRatings, Model model) {
+        log.debug("Загрузка сотрудников по курсору, размер страницы: {}", pageSize);
+
+        CursorPage<EmployeeListRow> employeePage = employeeService.findWithFiltersAfter(
+                name, category, skill, department, position, active, cursor, pageSize
+        );
+
+        model.addAttribute("employees", employeePage.content());
+        addRatings(includeRatings, model);
+        model.addAttribute("currentPage", 0);
+        model.addAttribute("totalPages", 0);
+        model.addAttribute("nextCursor", employeePage.nextCursor());
+        model.addAttribute("cursorMode", true);
+        // Итоги считаются только на первой странице: COUNT по всей выборке на каждой странице
+        // вернул бы зависимость времени ответа от размера таблицы, которую убирает keyset
+        if (cursor.isBlank()) {
+            model.addAttribute("totalEmployees", employeeService.countWithFilters(name, category, skill, department, position, active));
+            model.addAttribute("activeEmployees", employeeService.countActiveWithFilters(name, category, skill, department, position));
+        }
+        model.addAttribute("departments", employeeService.findAllDistinctDepartments());
+        model.addAttribute("positions", employeeService.findAllDistinctPositions());
+        model.addAttribute("skillCategories", Skills.getAllCategories());
+
+        model.addAttribute("searchName", name);
+        model.addAttribute("searchCategory", category);
+        model.addAttribute("searchSkill", skill);
+        model.addAttribute("searchDepartments", department);
+        model.addAttribute("searchPositions", position);
+        model.addAttribute("searchActive", active);
+        return "employees";
+    }
+
+    // Агрегаты рейтинга уже прочитаны вместе со строками списка; показываются, только если их попросили
+    private void addRatings(boolean includeRatings, Model model) {
+        model.addAttribute("includeRatings", includeRatings);
+    }
+
     @ModelAttribute("paginationParams")
     public String getPaginationParams(
             @RequestParam(required = false) String name,
@@ -111,7 +165,8 @@ public class EmployeeController {
             @RequestParam(required = false) String skill,
             @RequestParam(required = false) List<String> department,
             @RequestParam(required = false) List<String> position,
-            @RequestParam(required = false) Boolean active) {
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "false") boolean includeRatings) {
 
         StringBuilder params = new StringBuilder();
 
@@ -133,6 +188,9 @@ public class EmployeeController {
         if (active != null) {
             params.append("&active=").append(active);
         }
+        if (includeRatings) {
+            params.append("&includeRatings=true");
+        }
 
         return params.toString();
     }
@@ -155,7 +213,7 @@ public class EmployeeController {
             Employee employee;
             if (id != null) {
                 log.debug("Запрос на редактирование сотрудника с ID: {}", id);
-                employee = employeeService.findById(id)
+                employee = employeeService.findDetail(id)
                         .orElseThrow(() -> new IllegalArgumentException("Сотрудник не найден с ID: " + id));
             } else {
                 log.debug("Запрос на создание нового сотрудника");
@@ -177,19 +235,25 @@ public class EmployeeController {
 
     @PreAuthorize("hasAnyRole('resume.admin','resume.client','resume.user')")
     @GetMapping("/employee/{id}/reviews")
-    public String viewEmployeeReviews(@PathVariable Long id, Model model, RedirectAttributes redirect) {
+    public String viewEmployeeReviews(@PathVariable Long id,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      Model model, RedirectAttributes redirect) {
         log.info("Запрос на просмотр отзывов для сотрудника ID: {}", id);
         try {
-            Employee employee = employeeService.findById(id)
+            // Сотрудник, страница отзывов и агрегаты рейтинга - одним запросом
+            EmployeeDetailView employee = employeeService.findDetailView(id, page, REVIEWS_PAGE_SIZE)
                     .orElseThrow(() -> new IllegalArgumentException("Сотрудник не найден с ID: " + id));
-            List<Review> reviews = employeeService.findReviewsByEmployeeId(id);
-            double averageRating = employeeService.calculateAverageRating(id);
+            RatingStats ratingStats = employee.getRatingStats();
+            double averageRating = ratingStats.getAverage();
             log.debug("Найдено {} отзывов для сотрудника ID: {}. Средний рейтинг: {}",
-                    reviews.size(), id, averageRating);
+                    ratingStats.getReviewCount(), id, averageRating);
 
             model.addAttribute("employee", employee);
-            model.addAttribute("reviews", reviews);
+            model.addAttribute("reviews", employee.getReviews());
+            model.addAttribute("currentPage", page);
+            model.addAttribute("totalPages", employee.getReviewTotalPages());
             model.addAttribute("averageRating", String.format("%.2f", averageRating));
+            model.addAttribute("ratingHistogram", ratingStats.getHistogram());
             return "employee-reviews";
         } catch (IllegalArgumentException e) {
             log.warn("Сотрудник с ID {} не найден", id);
@@ -206,27 +270,26 @@ public class EmployeeController {
     @GetMapping("/employee/{id}")
     public String viewEmployee(@PathVariable Long id, Model model, RedirectAttributes redirect) {
         try {
-            Employee employee = employeeService.findById(id)
-                    .orElseThrow(() -> new IllegalArgumentException("Сотрудник не найден с ID: " + id));
-
-            if (employee.isDeleted()) {
+            // Профиль отзывы не выводит (только форму и ссылку), поэтому страница отзывов пустая
+            Optional<EmployeeDetailView> found = employeeService.findDetailView(id, 0, 0);
+            // Карточка читается только для неудаленных; удаленного отличаем от несуществующего отдельно
+            if (found.isEmpty() && employeeService.isDeleted(id)) {
                 redirect.addFlashAttribute("error", "Сотрудник был удален");
                 return "redirect:/";
             }
+            EmployeeDetailView employee = found
+                    .orElseThrow(() -> new IllegalArgumentException("Сотрудник не найден с ID: " + id));
 
-            // Проверка существования фото
+            // Проверка существования фото - по каталогу в памяти
             if (employee.getPhotoPath() != null) {
-                Path filePath = Paths.get(UPLOAD_DIR, employee.getPhotoPath().replace("/images/", ""));
-                if (!Files.exists(filePath)) {
-                    employee.setPhotoPath("/images/default.jpg");
-                }
+                employee.setPhotoPath(photoCatalog.resolve(employee.getPhotoPath(), "/images/default.jpg"));
             }
 
+            // Форме отзыва нужен только id сотрудника
+            Employee reviewed = new Employee();
+            reviewed.setId(employee.getId());
             Review review = new Review();
-            review.setEmployee(employee);
-
-            log.debug("Инициализация Review для формы: id={}, employee={}",
-                    review.getId(), employee.getId());
+            review.setEmployee(reviewed);
 
             model.addAttribute("employee", employee);
             model.addAttribute("review", review);
@@ -275,14 +338,15 @@ public class EmployeeController {
             if (employee.getId() == null) {
                 log.info("Сохранение нового сотрудника: {}", employee.getName());
                 savedEmployee = employeeService.create(employee, photoPath);
-                redirect.addFlashAttribute("success", "Сотрудник успешно добавлен");
+                redirect.addFlashAttribute("success", "Сотрудник успешно добавлен" + suggestionNote(savedEmployee));
             } else {
                 log.info("Обновление сотрудника с ID: {}", employee.getId());
-                if (photoPath != null && employee.getPhotoPath() != null) {
+                // Файлы хранилища по содержимому могут быть общими - их удаляет PhotoStorage.collectGarbage
+                if (photoPath != null && employee.getPhotoPath() != null && !PhotoStorage.isBlob(employee.getPhotoPath())) {
                     deleteFile(employee.getPhotoPath());
                 }
                 savedEmployee = employeeService.updateWithPhoto(employee.getId(), employee, photoPath);
-                redirect.addFlashAttribute("success", "Сотрудник успешно обновлён");
+                redirect.addFlashAttribute("success", "Сотрудник успешно обновлён" + suggestionNote(savedEmployee));
             }
             return "redirect:/employee/" + savedEmployee.getId();
         } catch (IllegalArgumentException e) {
@@ -296,6 +360,17 @@ public class EmployeeController {
         }
     }
 
+    // Подсказка о навыках, которые упомянуты в резюме, но не отмечены
+    private String suggestionNote(Employee employee) {
+        if (employee.getSuggestedSkills() == null || employee.getSuggestedSkills().isEmpty()) {
+            return "";
+        }
+        return ". В резюме упомянуты навыки, которые не отмечены: " + employee.getSuggestedSkills().stream()
+                .map(Skills::getDisplayName)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
     @PreAuthorize("hasRole('resume.admin')")
     @PostMapping("/employee/delete/{id}")
     public String deleteEmployee(@PathVariable Long id,
@@ -321,15 +396,17 @@ public class EmployeeController {
     @GetMapping("/search")
     public String searchEmployees(@RequestParam(defaultValue = "") String name,
                                   @RequestParam(defaultValue = "0") int page,
+                                  @RequestParam(defaultValue = "false") boolean includeRatings,
                                   Model model) {
         int pageSize = 10;
         try {
             log.debug("Поиск сотрудников по имени: {}, страница: {}, размер: {}", name, page, pageSize);
 
             Pageable pageable = PageRequest.of(page, pageSize);
-            Page<Employee> employeePage = employeeService.findByNameContainingPage(name, pageable);
+            Page<EmployeeListRow> employeePage = employeeService.findByNameContainingPage(name, pageable);
 
             model.addAttribute("employees", employeePage.getContent());
+            addRatings(includeRatings, model);
             model.addAttribute("currentPage", page);
             model.addAttribute("totalPages", employeePage.getTotalPages());
             model.addAttribute("totalEmployees", employeePage.getTotalElements());
@@ -439,16 +516,10 @@ public class EmployeeController {
             return null;
         }
         try {
-            validateFile(file);
-            String fileName = generateUniqueFileName(Objects.requireNonNull(file.getOriginalFilename()));
-            Path filePath = Paths.get(UPLOAD_DIR, fileName).toAbsolutePath().normalize();
-
-            Files.createDirectories(filePath.getParent());
-            try (var inputStream = file.getInputStream()) {
-                Files.copy(inputStream, filePath, StandardCopyOption.REPLACE_EXISTING);
-            }
-            log.info("Файл сохранен: {} в {}", fileName, filePath);
-            return "/images/" + fileName;
+            // Формат (по сигнатуре) и размер проверяет PhotoStorage при чтении файла
+            String photoPath = photoStorage.store(file);
+            log.info("Файл сохранен: {}", photoPath);
+            return photoPath;
         } catch (IllegalArgumentException e) {
             log.error("Ошибка валидации файла: {}", e.getMessage());
             throw e;
@@ -465,29 +536,12 @@ public class EmployeeController {
         }
 
         try {
-            Path path = Paths.get(UPLOAD_DIR, filePath.replace("/images/", "")).toAbsolutePath().normalize();
+            Path path = photoCatalog.getDirectory().resolve(filePath.replace(PhotoCatalog.URL_PREFIX, "")).normalize();
             Files.deleteIfExists(path);
+            photoCatalog.remove(filePath);
             log.info("Файл удален: {}", filePath);
         } catch (IOException e) {
             log.warn("Не удалось удалить файл: {}", filePath, e);
         }
     }
-
-    private void validateFile(MultipartFile file) {
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_IMAGE_TYPES.contains(contentType)) {
-            log.error("Недопустимый тип файла: {}", contentType);
-            throw new IllegalArgumentException("Поддерживаются только файлы JPG, PNG и WEBP");
-        }
-
-        if (file.getSize() > MAX_FILE_SIZE) {
-            log.error("Превышен размер файла: {} байт", file.getSize());
-            throw new IllegalArgumentException("Максимальный размер файла - 5MB");
-        }
-    }
-
-    private String generateUniqueFileName(String originalFilename) {
-        String safeFileName = originalFilename.replaceAll("[^a-zA-Z0-9.-]", "_");
-        return UUID.randomUUID() + "_" + safeFileName;
-    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.dto.CallbackRequest;
 import org.example.model.dto.EmployeeDto;
+import org.example.model.SkillResolver;
 import org.example.model.Skills;
 import org.example.request.CreateEmployeeRequest;
 import org.example.fileFabrica.FileFormat;
@@ -65,7 +66,19 @@ public class Callbackcontroller {
         }
     }
     @GetMapping("/skills")
-    public List<SkillDTO> getSkillsByCategory(@RequestParam(required = false) String category) {
+    public List<SkillDTO> getSkillsByCategory(@RequestParam(required = false) String category,
+                                              @RequestParam(required = false) String q,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        // Автодополнение: навыки по префиксу названия или синонима, лучшие совпадения первыми
+        if (q != null && !q.isBlank()) {
+            return SkillResolver.getInstance().suggest(q, Skills.values().length).stream()
+                    .filter(skill -> category == null || category.isBlank()
+                            || skill.getCategory().equalsIgnoreCase(category))
+                    .limit(limit)
+                    .map(skill -> new SkillDTO(skill.name(), skill.getDisplayName()))
+                    .collect(Collectors.toList());
+        }
+
         if (category != null && !category.isBlank()) {
             return Skills.getByCategory(category).stream()
                     .map(skill -> new SkillDTO(skill.name(), skill.getDisplayName()))
@@ -107,8 +120,13 @@ public class Callbackcontroller {
     public ResponseEntity<String> createFile(@PathVariable Long id, @RequestParam FileFormat fileFormat) {
         try {
             EmployeeDto employeeDto = employeeService.getEmployeeById(id);
-            ByteArrayOutputStream fileStream = fileService.createFile(employeeDto, fileFormat);
-            return ResponseEntity.ok("File has been created successfully");
+            // Файл пишется на диск и скачивается через /api/downloads/exports/{name} (с поддержкой Range)
+            String fileName = fileService.storeFile(employeeDto, fileFormat);
+            URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/downloads/exports/{name}")
+                    .buildAndExpand(fileName)
+                    .toUri();
+            return ResponseEntity.created(location).body("File has been created successfully");
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -5,29 +5,44 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.model.dto.BackfillStatus;
+import org.example.model.dto.CacheRegionStats;
+import org.example.model.dto.CursorPage;
+import org.example.model.dto.EmployeeDetailView;
+import org.example.model.dto.EmployeeListRow;
 import org.example.model.dto.EmployeeQuickViewDTO;
+import org.example.model.dto.ImportJobStatus;
+import org.example.model.dto.RatedEmployee;
+import org.example.model.dto.RatingSummary;
+import org.example.model.dto.ResourceVersion;
 import org.example.model.Employee;
 import org.example.model.Education;
+import org.example.model.PhotoSize;
 import org.example.model.Review;
 import org.example.model.Skills;
+import org.example.service.EmployeeImportService;
 import org.example.service.EmployeeService;
+import org.example.service.EntityCacheService;
+import org.example.service.PhotoCatalog;
+import org.example.service.PhotoStorage;
+import org.example.service.ThumbnailService;
+import org.example.service.SkillSuggestionBackfillService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.net.URI;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -37,10 +52,19 @@ import java.util.stream.Collectors;
 @Tag(name = "Employee Management", description = "API для управления сотрудниками")
 public class EmployeeRestController {
     private final EmployeeService employeeService;
+    private final EmployeeImportService employeeImportService;
+    private final SkillSuggestionBackfillService skillSuggestionBackfillService;
+    private final EntityCacheService entityCacheService;
+    private final PhotoCatalog photoCatalog;
+    private final PhotoStorage photoStorage;
+    private final ThumbnailService thumbnailService;
 
-    private static final String UPLOAD_DIR = "resources/static/images/";
-    private static final List<String> ALLOWED_IMAGE_TYPES = List.of("image/jpeg", "image/png", "image/webp", "image/gif");
-    private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
+    private static final String DEFAULT_AVATAR = "/images/default-avatar.png";
+    private static final int MAX_QUICK_SEARCH_RESULTS = 50;
+    // Формат элементов списка и быстрого поиска: full - сотрудник целиком, как до перехода на строки списка;
+    // row - только колонки EmployeeListRow (без резюме, образования и настроек)
+    private static final String VIEW_FULL = "full";
+    private static final String VIEW_ROW = "row";
 
 
     @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
@@ -51,42 +75,125 @@ public class EmployeeRestController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String position,
-            @RequestParam(required = false) String department) {
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String skills,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeRatings,
+            @RequestParam(defaultValue = VIEW_FULL) String view,
+            ServletWebRequest request) {
         try {
+            boolean rowView = isRowView(view);
+            // Версия списка - max(updated_at) и количество под фильтром; страница не строится, если она не изменилась
+            ResourceVersion version = employeeService.findListVersion(name, position, department, skills);
+            String etag = version.etag("list", page, size, name, position, department, skills, cursor,
+                    includeRatings, view);
+            if (isNotModified(request, etag, version)) {
+                return null;
+            }
+
+            if (cursor != null) {
+                // Keyset-режим: глубина страницы не влияет на время ответа
+                CursorPage<EmployeeListRow> employees = employeeService.findWithFiltersAfter(
+                        name, null, skills,
+                        department != null ? List.of(department) : null,
+                        position != null ? List.of(position) : null,
+                        null, cursor, size);
+
+                ResponseEntity.BodyBuilder response = versioned(ResponseEntity.ok(), etag, version);
+                if (employees.hasNext()) {
+                    response.header("X-Next-Cursor", employees.nextCursor());
+                }
+                return response.body(toView(employees.content(), rowView, includeRatings));
+            }
+
             Pageable pageable = PageRequest.of(page, size);
-            Page<Employee> employees = employeeService.findAllWithFilters(name, position, department, pageable);
+            Page<EmployeeListRow> employees = employeeService.findAllWithFilters(name, position, department, skills, pageable);
 
-            return ResponseEntity.ok()
+            return versioned(ResponseEntity.ok(), etag, version)
                     .header("X-Total-Pages", String.valueOf(employees.getTotalPages()))
                     .header("X-Total-Count", String.valueOf(employees.getTotalElements()))
-                    .body(employees.getContent());
+                    .body(toView(employees.getContent(), rowView, includeRatings));
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректные параметры списка сотрудников: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             log.error("Ошибка при загрузке списка сотрудников: {}", e.getMessage(), e);
             return ResponseEntity.internalServerError().body("Ошибка сервера при загрузке списка сотрудников");
         }
     }
 
+    private static boolean isRowView(String view) {
+        if (VIEW_ROW.equalsIgnoreCase(view)) {
+            return true;
+        }
+        if (VIEW_FULL.equalsIgnoreCase(view)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Неизвестный формат ответа view: " + view + " (full или row)");
+    }
+
+    // Страница списка в запрошенном формате: view=row - узкие строки EmployeeListRow,
+    // по умолчанию - прежний полный JSON сотрудника (с навыками и образованием)
+    private List<?> toView(List<EmployeeListRow> rows, boolean rowView, boolean includeRatings) {
+        if (!rowView) {
+            List<Employee> employees = employeeService.findDetailsInOrder(
+                    rows.stream().map(EmployeeListRow::getId).toList());
+            if (!includeRatings) {
+                return employees;
+            }
+            // Агрегаты рейтинга уже загружены в сущности
+            return employees.stream()
+                    .map(employee -> new RatedEmployee(employee, RatingSummary.of(employee.getRatingStats())))
+                    .toList();
+        }
+        if (!includeRatings) {
+            return rows;
+        }
+        // Агрегаты рейтинга прочитаны тем же запросом, что и строки страницы
+        return rows.stream()
+                .map(employee -> new RatedEmployee(employee, RatingSummary.of(employee.getRatingStats())))
+                .toList();
+    }
+
+    @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
+    @Operation(summary = "Быстрый поиск сотрудников по имени, email или телефону")
+    @GetMapping("/quick-search")
+    public ResponseEntity<?> quickSearch(@RequestParam("q") String query,
+                                         @RequestParam(defaultValue = "10") int limit,
+                                         @RequestParam(defaultValue = VIEW_FULL) String view) {
+        try {
+            boolean rowView = isRowView(view);
+            List<EmployeeListRow> rows = employeeService.quickSearch(query, Math.min(limit, MAX_QUICK_SEARCH_RESULTS));
+            return ResponseEntity.ok(toView(rows, rowView, false));
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректные параметры быстрого поиска: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка быстрого поиска по '{}': {}", query, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Ошибка сервера при поиске сотрудников");
+        }
+    }
+
     @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
     @Operation(summary = "Получить сотрудника по ID")
     @GetMapping("/{id}")
-    public ResponseEntity<?> getEmployee(@PathVariable Long id) {
+    public ResponseEntity<?> getEmployee(@PathVariable Long id, ServletWebRequest request) {
         try {
-            Employee employee = employeeService.findById(id)
+            // Версия проверяется до загрузки сотрудника: для 304 достаточно одного запроса по первичному ключу
+            ResourceVersion version = employeeService.findVersion(id)
                     .orElseThrow(() -> new IllegalArgumentException("Сотрудник с ID " + id + " не найден"));
+            String etag = version.etag("employee", id);
+            if (isNotModified(request, etag, version)) {
+                return null;
+            }
 
-            if (employee.getPhotoPath() != null && !employee.getPhotoPath().isEmpty()) {
-                String cleanPhotoPath = employee.getPhotoPath().replaceFirst("^/", "");
-                Path photoFullPath = Paths.get(UPLOAD_DIR, cleanPhotoPath).toAbsolutePath().normalize();
+            // Навыки и образование загружаются сразу: сериализация не должна обращаться к БД
+            Employee employee = employeeService.findDetail(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Сотрудник с ID " + id + " не найден"));
 
-                if (!Files.exists(photoFullPath)) {
-                    log.warn("Фото не найдено: {}", photoFullPath);
-                    employee.setPhotoPath("/images/default-avatar.png");
-                }
-            } else {
-                employee.setPhotoPath("/images/default-avatar.png");
-            }
+            employee.setPhotoPath(photoCatalog.resolve(employee.getPhotoPath(), DEFAULT_AVATAR));
 
-            return ResponseEntity.ok(employee);
+            return versioned(ResponseEntity.ok(), etag, version).body(employee);
         } catch (IllegalArgumentException e) {
             log.warn("Сотрудник не найден: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -96,25 +203,59 @@ public class EmployeeRestController {
         }
     }
 
+    @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
+    @Operation(summary = "Карточка сотрудника: навыки, образование, страница отзывов и рейтинг одним запросом")
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<?> getEmployeeDetail(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "0") int reviewPage,
+                                               @RequestParam(defaultValue = "10") int reviewSize,
+                                               ServletWebRequest request) {
+        try {
+            // Версия карточки - updated_at сотрудника: его обновляют и изменение самой строки,
+            // и новый отзыв (агрегаты рейтинга), и добавление образования (EmployeeService.addEducations)
+            ResourceVersion version = employeeService.findVersion(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Сотрудник с ID " + id + " не найден"));
+            String etag = version.etag("detail", id, reviewPage, reviewSize);
+            if (isNotModified(request, etag, version)) {
+                return null;
+            }
+
+            EmployeeDetailView detail = employeeService.findDetailView(id, reviewPage, reviewSize)
+                    .orElseThrow(() -> new IllegalArgumentException("Сотрудник с ID " + id + " не найден"));
+            detail.setPhotoPath(photoCatalog.resolve(detail.getPhotoPath(), DEFAULT_AVATAR));
+
+            return versioned(ResponseEntity.ok(), etag, version).body(detail);
+        } catch (IllegalArgumentException e) {
+            log.warn("Карточка сотрудника не найдена: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка при получении карточки сотрудника с ID {}: {}", id, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Ошибка сервера при получении карточки сотрудника");
+        }
+    }
+
     @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
     @Operation(summary = "Получить данные сотрудника для быстрого просмотра")
     @GetMapping("/{id}/quick-view")
-    public ResponseEntity<?> getEmployeeQuickView(@PathVariable Long id) {
+    public ResponseEntity<?> getEmployeeQuickView(@PathVariable Long id,
+                                                  @RequestParam(required = false) String photoSize,
+                                                  ServletWebRequest request) {
         try {
-            Employee employee = employeeService.findById(id)
+            PhotoSize size = PhotoSize.fromString(photoSize);
+            ResourceVersion version = employeeService.findVersion(id)
                     .orElseThrow(() -> new IllegalArgumentException("Сотрудник с ID " + id + " не найден"));
-
-            String photoPath = "/images/default-avatar.png";
-            if (employee.getPhotoPath() != null && !employee.getPhotoPath().isEmpty()) {
-                String cleanPhotoPath = employee.getPhotoPath().replaceFirst("^/", "");
-                Path photoFullPath = Paths.get(UPLOAD_DIR, cleanPhotoPath).toAbsolutePath().normalize();
-                if (Files.exists(photoFullPath)) {
-                    photoPath = employee.getPhotoPath();
-                } else {
-                    log.warn("Фото не найдено: {}", photoFullPath);
-                }
+            String etag = version.etag("quick-view", id, size);
+            if (isNotModified(request, etag, version)) {
+                return null;
             }
 
+            // Узкая строка вместо сущности: резюме, образование и настройки для быстрого просмотра не читаются
+            EmployeeListRow employee = employeeService.findListRow(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Сотрудник с ID " + id + " не найден"));
+
+            // Пока уменьшенного варианта нет, отдается оригинал
+            String photoPath = thumbnailService.resolve(photoCatalog.resolve(employee.getPhotoPath(), DEFAULT_AVATAR), size);
+
             EmployeeQuickViewDTO quickView = new EmployeeQuickViewDTO();
             quickView.setId(employee.getId());
             quickView.setName(employee.getName());
@@ -126,15 +267,11 @@ public class EmployeeRestController {
             quickView.setCreatedAt(employee.getCreatedAt());
             quickView.setPhotoPath(photoPath);
 
-            List<String> skillsAsStrings = employee.getSkills() != null && !employee.getSkills().isEmpty()
-                    ? employee.getSkills().stream()
+            quickView.setSkills(employee.getSkills().stream()
                     .map(Skills::getDisplayName)
-                    .collect(Collectors.toList())
-                    : List.of();
+                    .collect(Collectors.toList()));
 
-            quickView.setSkills(skillsAsStrings);
-
-            return ResponseEntity.ok(quickView);
+            return versioned(ResponseEntity.ok(), etag, version).body(quickView);
         } catch (IllegalArgumentException e) {
             log.warn("Сотрудник не найден для быстрого просмотра: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
@@ -144,6 +281,31 @@ public class EmployeeRestController {
         }
     }
 
+    // === УСЛОВНЫЕ GET (ETag / Last-Modified) ===
+
+    // Клиент может хранить ответ, но обязан проверять его актуальность при каждом запросе
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    // true - клиенту уже отправлен 304 Not Modified, тело строить не нужно
+    private static boolean isNotModified(ServletWebRequest request, String etag, ResourceVersion version) {
+        if (!request.checkNotModified(etag, version.lastModifiedMillis())) {
+            return false;
+        }
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        }
+        return true;
+    }
+
+    private static ResponseEntity.BodyBuilder versioned(ResponseEntity.BodyBuilder response,
+                                                        String etag, ResourceVersion version) {
+        response.eTag(etag).cacheControl(REVALIDATE);
+        if (version.lastModified() != null) {
+            response.lastModified(version.lastModifiedMillis());
+        }
+        return response;
+    }
+
     // === АДМИНИСТРИРОВАНИЕ (только для resume.admin) ===
 
     @PreAuthorize("hasRole('resume.admin')")
@@ -213,6 +375,111 @@ public class EmployeeRestController {
         }
     }
 
+    // === Поиск по навыкам (in-memory индекс навыков) ===
+
+    @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
+    @Operation(summary = "Сотрудники, у которых есть все (match=all) или любой (match=any) из навыков")
+    @GetMapping("/by-skills")
+    public ResponseEntity<?> findBySkills(@RequestParam List<String> skills,
+                                          @RequestParam(defaultValue = "all") String match,
+                                          @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(employeeService.findBySkills(skills, isMatchAll(match), limit));
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректные параметры поиска по навыкам: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка поиска по навыкам {}: {}", skills, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Ошибка сервера при поиске по навыкам");
+        }
+    }
+
+    @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
+    @Operation(summary = "Количество сотрудников по каждому навыку среди подходящих под фильтр навыков")
+    @GetMapping("/skills/counts")
+    public ResponseEntity<?> countBySkill(@RequestParam(required = false) List<String> skills,
+                                          @RequestParam(defaultValue = "all") String match) {
+        try {
+            return ResponseEntity.ok(employeeService.countBySkill(skills, isMatchAll(match)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректные параметры подсчета по навыкам: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка подсчета по навыкам {}: {}", skills, e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Ошибка сервера при подсчете по навыкам");
+        }
+    }
+
+    private boolean isMatchAll(String match) {
+        if ("all".equalsIgnoreCase(match)) {
+            return true;
+        }
+        if ("any".equalsIgnoreCase(match)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Параметр match должен быть all или any");
+    }
+
+    // === Подсказки навыков из резюме ===
+
+    @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
+    @Operation(summary = "Навыки, упомянутые в резюме сотрудника, но не отмеченные")
+    @GetMapping("/{id}/skill-suggestions")
+    public ResponseEntity<List<Skills>> getSkillSuggestions(@PathVariable Long id) {
+        return ResponseEntity.ok(skillSuggestionBackfillService.findSuggestions(id));
+    }
+
+    @PreAuthorize("hasRole('resume.admin')")
+    @Operation(summary = "Запустить поиск навыков в резюме по всем сотрудникам")
+    @PostMapping("/skill-suggestions/backfill")
+    public ResponseEntity<BackfillStatus> startSkillSuggestionBackfill() {
+        return ResponseEntity.accepted().body(skillSuggestionBackfillService.start());
+    }
+
+    @PreAuthorize("hasRole('resume.admin')")
+    @Operation(summary = "Состояние поиска навыков в резюме")
+    @GetMapping("/skill-suggestions/backfill")
+    public ResponseEntity<BackfillStatus> getSkillSuggestionBackfillStatus() {
+        return ResponseEntity.ok(skillSuggestionBackfillService.getStatus());
+    }
+
+    @PreAuthorize("hasRole('resume.admin')")
+    @Operation(summary = "Импорт сотрудников из XLSX или CSV: новые добавляются, существующие обновляются по email")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importEmployees(@RequestParam("file") MultipartFile file) {
+        try {
+            ImportJobStatus status = employeeImportService.start(file);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/employees/import/" + status.id()))
+                    .body(status);
+        } catch (IllegalArgumentException e) {
+            log.warn("Некорректный файл импорта: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            log.warn("Импорт не принят: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Ошибка при приеме файла импорта: {}", e.getMessage(), e);
+            return ResponseEntity.internalServerError().body("Ошибка сервера при импорте сотрудников");
+        }
+    }
+
+    @PreAuthorize("hasRole('resume.admin')")
+    @Operation(summary = "Состояние импорта сотрудников: прогресс и ошибки строк")
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportStatus(@PathVariable String jobId) {
+        return employeeImportService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PreAuthorize("hasRole('resume.admin')")
+    @Operation(summary = "Статистика кэша второго уровня (размер, попадания, промахи)")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<List<CacheRegionStats>> getCacheStats() {
+        return ResponseEntity.ok(entityCacheService.getStats());
+    }
+
     // === Skills (только для admin) ===
 
     @PreAuthorize("hasRole('resume.admin')")
@@ -301,36 +568,7 @@ public class EmployeeRestController {
             return null;
         }
 
-        validateFile(file);
-
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        String fileName = UUID.randomUUID() + fileExtension;
-
-        Path uploadPath = Paths.get(UPLOAD_DIR).toAbsolutePath().normalize();
-        Path filePath = uploadPath.resolve(fileName);
-
-        Files.createDirectories(uploadPath);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-        return "/images/" + fileName;
-    }
-
-    private void validateFile(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new IllegalArgumentException("Файл не должен быть пустым");
-        }
-
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_IMAGE_TYPES.contains(contentType)) {
-            throw new IllegalArgumentException("Недопустимый формат файла. Разрешены: " + ALLOWED_IMAGE_TYPES);
-        }
-
-        if (file.getSize() > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException("Файл слишком большой. Максимальный размер: " + (MAX_FILE_SIZE / (1024 * 1024)) + "MB");
-        }
+        // Формат (по сигнатуре) и размер проверяет PhotoStorage при чтении файла
+        return photoStorage.store(file);
     }
 }
\ No newline at end of file
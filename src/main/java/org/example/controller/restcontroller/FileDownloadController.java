@@ -0,0 +1,193 @@
+package org.example.controller.restcontroller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.service.FileService;
+import org.example.service.PhotoCatalog;
+import org.example.service.PhotoStorage;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Скачивание фото и сохраненных выгрузок без копирования файла через память приложения.
+ * <p>
+ * Под Tomcat с NIO-коннектором файл отдает сам контейнер системным вызовом sendfile
+ * (атрибуты org.apache.tomcat.sendfile.*), иначе - FileChannel.transferTo в поток ответа.
+ * Поддерживаются запросы одного диапазона (Range/If-Range) для докачки и условные запросы по ETag.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/downloads")
+@RequiredArgsConstructor
+@Tag(name = "Downloads", description = "Скачивание фото и выгрузок с поддержкой Range")
+public class FileDownloadController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final PhotoCatalog photoCatalog;
+    private final FileService fileService;
+
+    @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
+    @Operation(summary = "Скачать фото по имени файла")
+    @GetMapping("/photos/{name:.+}")
+    public void downloadPhoto(@PathVariable String name,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        Optional<PhotoCatalog.PhotoInfo> photo = photoCatalog.find(name);
+        if (photo.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Фото не найдено");
+            return;
+        }
+        // Содержимое файла хранилища по содержимому не меняется никогда
+        CacheControl cacheControl = PhotoStorage.isBlob(PhotoCatalog.BLOB_URL_PREFIX + name) ? IMMUTABLE : REVALIDATE;
+        send(photoCatalog.getDirectory().resolve(name), "\"" + photo.get().sha256() + "\"",
+                cacheControl, null, request, response);
+    }
+
+    @PreAuthorize("hasAnyRole('resume.user', 'resume.admin', 'resume.client')")
+    @Operation(summary = "Скачать сохраненную выгрузку (POST /api/create-file/{id})")
+    @GetMapping("/exports/{name:.+}")
+    public void downloadExport(@PathVariable String name,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        Optional<Path> file = fileService.findStoredFile(name);
+        if (file.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Файл не найден");
+            return;
+        }
+        // Выгрузка под своим именем не перезаписывается, поэтому имя - сильный ETag
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name, StandardCharsets.UTF_8)
+                .build();
+        send(file.get(), "\"" + name + "\"", REVALIDATE, disposition, request, response);
+    }
+
+    private void send(Path file, String etag, CacheControl cacheControl, ContentDisposition disposition,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        if (disposition != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition.toString());
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            List<HttpRange> ranges = parseRanges(rangeHeader);
+            // Несколько диапазонов (multipart/byteranges) не поддерживаются - отдается весь файл
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+        transfer(file, start, count, request, response);
+    }
+
+    private static void transfer(Path file, long start, long count,
+                                 HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat отправит файл через sendfile после выхода из обработчика; конец диапазона - не включительно
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // If-Range: диапазон отдается, только если у клиента та же версия файла, иначе - файл целиком
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Некорректный заголовок Range игнорируется
+    private static List<HttpRange> parseRanges(String rangeHeader) {
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            log.debug("Некорректный заголовок Range '{}': {}", rangeHeader, e.getMessage());
+            return List.of();
+        }
+    }
+}
@@ -6,15 +6,14 @@ import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.example.model.dto.EmployeeDto;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 public class DocxFileGenerator implements FileGenerator {
 
     @Override
-    public ByteArrayOutputStream generateFile(EmployeeDto employee) throws IOException {
+    public void writeFile(EmployeeDto employee, OutputStream outputStream) throws IOException {
         XWPFDocument doc = new XWPFDocument();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
         try {
             XWPFParagraph titleParagraph = doc.createParagraph();
@@ -43,7 +42,5 @@ public class DocxFileGenerator implements FileGenerator {
         } finally {
             doc.close();
         }
-
-        return outputStream;
     }
 }
\ No newline at end of file
@@ -7,15 +7,14 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.example.model.dto.EmployeeDto;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 public class ExelFileGenerator implements FileGenerator {
 
     @Override
-    public ByteArrayOutputStream generateFile(EmployeeDto employee) throws IOException {
+    public void writeFile(EmployeeDto employee, OutputStream outputStream) throws IOException {
         Workbook workbook = new XSSFWorkbook();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
 
         try {
             Sheet sheet = workbook.createSheet("Данные сотрудника");
@@ -42,7 +41,5 @@ public class ExelFileGenerator implements FileGenerator {
         } finally {
             workbook.close();
         }
-
-        return outputStream;
     }
 }
\ No newline at end of file
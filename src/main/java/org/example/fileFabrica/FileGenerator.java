@@ -4,7 +4,18 @@ import org.example.model.dto.EmployeeDto;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 public interface FileGenerator {
-    ByteArrayOutputStream generateFile(EmployeeDto employee) throws IOException;
+
+    /**
+     * Пишет файл в поток (например, сразу на диск); поток не закрывается.
+     */
+    void writeFile(EmployeeDto employee, OutputStream outputStream) throws IOException;
+
+    default ByteArrayOutputStream generateFile(EmployeeDto employee) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writeFile(employee, outputStream);
+        return outputStream;
+    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package org.example.mappers;
 import org.example.model.dto.EmployeeDto;
 import org.example.model.Employee;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 import java.util.List;
@@ -11,6 +12,8 @@ import java.util.List;
 public interface EmployeeMapper {
     EmployeeMapper INSTANCE = Mappers.getMapper(EmployeeMapper.class);
 
+    // Как в проекциях EmployeeRepositoryDto
+    @Mapping(target = "phone", source = "phoneNumber")
     EmployeeDto toDto(Employee employee);
     List<EmployeeDto> toDto(List<Employee> employees);
 }
\ No newline at end of file
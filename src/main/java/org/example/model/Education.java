@@ -1,5 +1,6 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
@@ -12,7 +13,9 @@ import lombok.*;
 @Table(name = "educations")
 public class Education {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "educations_id_seq")
+    @SequenceGenerator(name = "educations_id_seq", sequenceName = "educations_id_seq",
+            allocationSize = Employee.ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotNull(message = "Год начала не может быть пустым")
@@ -35,6 +38,8 @@ public class Education {
     @Column(name = "degree", nullable = false)
     private String degree;
 
+    // Обратная ссылка: в JSON сотрудника не повторяется и не загружается лениво
+    @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
     private Employee employee;
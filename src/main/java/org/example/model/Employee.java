@@ -1,9 +1,12 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -20,9 +23,25 @@ import java.util.stream.Collectors;
 @EqualsAndHashCode(of = {"id", "email"})
 @Entity
 @Table(name = "employees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employees")
+@NamedEntityGraph(name = Employee.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("skills"),
+        @NamedAttributeNode("educations")
+})
 public class Employee {
+
+    // Карточка сотрудника: навыки и образование одним запросом; отзывы - только постранично (ReviewRepository)
+    public static final String DETAIL_GRAPH = "Employee.detail";
+
+    // Шаг последовательностей id (V8__pooled_id_sequences.sql): один nextval на блок строк,
+    // id известен до INSERT - вставки идут пачками JDBC (hibernate.jdbc.batch_size)
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_id_seq")
+    @SequenceGenerator(name = "employees_id_seq", sequenceName = "employees_id_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Имя не может быть пустым")
@@ -94,15 +113,35 @@ public class Employee {
             joinColumns = @JoinColumn(name = "employee_id"))
     @Enumerated(EnumType.STRING)
     @Column(name = "skill")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employee-skills")
     @Builder.Default
     private Set<Skills> skills = new HashSet<>();
 
+    // Навыки, найденные в резюме и "о себе", но не отмеченные у сотрудника (заполняется при сохранении)
+    @Transient
+    @Builder.Default
+    private Set<Skills> suggestedSkills = new HashSet<>();
+
+    // Денормализованная копия skills: бит i = навык с ordinal i (см. Skills.maskOf)
+    @Column(name = "skills_mask", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private long skillsMask;
+
+    // Количество отзывов, сумма оценок и гистограмма; обновляются в БД при записи отзыва
+    @Embedded
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Builder.Default
+    private RatingStats ratingStats = RatingStats.empty();
+
     @Valid
     @Builder.Default
     @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Education> educations = new ArrayList<>();
 
+    // В JSON не отдаются: ни один план загрузки их не выбирает, отзывы читаются отдельно
     @Valid
+    @JsonIgnore
     @Builder.Default
     @OneToMany(mappedBy = "employee", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private List<Review> reviews = new ArrayList<>();
@@ -133,11 +172,13 @@ public class Employee {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        skillsMask = Skills.maskOf(skills);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        skillsMask = Skills.maskOf(skills);
     }
 
     // === МЕТОДЫ ДЛЯ SOFT DELETE ===
@@ -193,21 +234,39 @@ public class Employee {
         }
     }
 
+    // Рейтинг в JSON отдается только по запросу (includeRatings), см. RatedEmployee
+    @JsonIgnore
+    public double getAverageRating() {
+        return ratingStats != null ? ratingStats.getAverage() : 0.0;
+    }
+
+    @JsonIgnore
+    public int getReviewCount() {
+        return ratingStats != null ? ratingStats.getReviewCount() : 0;
+    }
+
     public LocalDateTime getLastModified() {
         return updatedAt != null ? updatedAt : createdAt;
     }
 
+    public void setSkills(Set<Skills> skills) {
+        this.skills = skills;
+        this.skillsMask = Skills.maskOf(skills);
+    }
+
     public void addSkill(Skills skill) {
         if (this.skills == null) {
             this.skills = new HashSet<>();
         }
         this.skills.add(skill);
+        this.skillsMask |= skill.bit();
     }
 
     public void removeSkill(Skills skill) {
         if (this.skills != null) {
             this.skills.remove(skill);
         }
+        this.skillsMask &= ~skill.bit();
     }
 
     public void addEducation(Education education) {
@@ -0,0 +1,71 @@
+package org.example.model;
+
+import java.util.Locale;
+
+/**
+ * Размеры фото сотрудника. Уменьшенные варианты лежат рядом с оригиналом:
+ * "/photos/{sha256}.jpg" -> "/photos/{sha256}-thumb.jpg". PNG и GIF уменьшаются в PNG
+ * (сохраняется прозрачность), остальные форматы - в JPEG.
+ */
+public enum PhotoSize {
+    THUMB(128),
+    MEDIUM(480),
+    ORIGINAL(0);
+
+    private final int maxDimension;
+
+    PhotoSize(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * Наибольшая сторона варианта в пикселях; 0 - оригинал без изменений.
+     */
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public String getSuffix() {
+        return "-" + name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Путь варианта этого размера для пути оригинала.
+     */
+    public String variantOf(String photoPath) {
+        if (this == ORIGINAL || photoPath == null) {
+            return photoPath;
+        }
+        int dot = photoPath.lastIndexOf('.');
+        int slash = photoPath.lastIndexOf('/');
+        String base = dot > slash ? photoPath.substring(0, dot) : photoPath;
+        String extension = dot > slash ? photoPath.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        return base + getSuffix() + (extension.equals("png") || extension.equals("gif") ? ".png" : ".jpg");
+    }
+
+    /**
+     * true, если имя файла - уменьшенный вариант, а не оригинал.
+     */
+    public static boolean isVariant(String fileName) {
+        for (PhotoSize size : values()) {
+            if (size != ORIGINAL && (fileName.endsWith(size.getSuffix() + ".jpg") || fileName.endsWith(size.getSuffix() + ".png"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Размер по имени без учета регистра; пустое значение - оригинал.
+     */
+    public static PhotoSize fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return ORIGINAL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Неизвестный размер фото: " + value);
+        }
+    }
+}
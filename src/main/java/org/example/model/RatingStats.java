@@ -0,0 +1,61 @@
+package org.example.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+/**
+ * Денормализованные агрегаты отзывов сотрудника: количество, сумма оценок и гистограмма по звездам.
+ * <p>
+ * Колонки изменяются только атомарными UPDATE в БД (EmployeeRepository.addRating,
+ * RatingStatsReconciliationService), поэтому сущность их не вставляет и не перезаписывает.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class RatingStats {
+
+    public static final int MAX_RATING = 5;
+
+    @Column(name = "review_count", nullable = false, insertable = false, updatable = false)
+    private int reviewCount;
+
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+    private long ratingSum;
+
+    @Column(name = "rating_1", nullable = false, insertable = false, updatable = false)
+    private int stars1;
+
+    @Column(name = "rating_2", nullable = false, insertable = false, updatable = false)
+    private int stars2;
+
+    @Column(name = "rating_3", nullable = false, insertable = false, updatable = false)
+    private int stars3;
+
+    @Column(name = "rating_4", nullable = false, insertable = false, updatable = false)
+    private int stars4;
+
+    @Column(name = "rating_5", nullable = false, insertable = false, updatable = false)
+    private int stars5;
+
+    public static RatingStats empty() {
+        return new RatingStats();
+    }
+
+    public boolean hasReviews() {
+        return reviewCount > 0;
+    }
+
+    public double getAverage() {
+        return reviewCount > 0 ? (double) ratingSum / reviewCount : 0.0;
+    }
+
+    /**
+     * Количество отзывов по оценкам: элемент 0 - одна звезда, элемент 4 - пять звезд.
+     */
+    public int[] getHistogram() {
+        return new int[]{stars1, stars2, stars3, stars4, stars5};
+    }
+}
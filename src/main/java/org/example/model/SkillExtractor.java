@@ -0,0 +1,197 @@
+package org.example.model;
+
+import java.util.*;
+
+/**
+ * Поиск упоминаний навыков в свободном тексте (резюме, "о себе").
+ * <p>
+ * Автомат Ахо-Корасик строится один раз по названиям, именам констант и синонимам навыков
+ * и проходит текст за один линейный проход. Совпадение засчитывается только целым словом:
+ * "Java" в "JavaScript" не найдется. Из вложенных совпадений остается самое длинное:
+ * "Spring Boot" - это SPRING_BOOT, без отдельного SPRING.
+ */
+public final class SkillExtractor {
+
+    // Слишком короткие или многозначные синонимы в свободном тексте дают ложные срабатывания
+    private static final int MIN_ALIAS_LENGTH = 3;
+    private static final Set<String> TEXT_STOP_ALIASES = Set.of("idea");
+
+    private static final SkillExtractor INSTANCE = new SkillExtractor();
+
+    // Автомат в массивах: переходы узла - отсортированные метки и номера узлов
+    private final List<char[]> labels = new ArrayList<>();
+    private final List<int[]> targets = new ArrayList<>();
+    private int[] fail;
+    // Для узла - навык и длина образца, который в нем заканчивается (или -1)
+    private final List<Skills> outputSkill = new ArrayList<>();
+    private final List<Integer> outputLength = new ArrayList<>();
+    // Ближайший по суффиксным ссылкам узел с образцом
+    private int[] outputLink;
+
+    public static SkillExtractor getInstance() {
+        return INSTANCE;
+    }
+
+    private SkillExtractor() {
+        newNode();
+        for (Skills skill : Skills.values()) {
+            addPattern(skill.getDisplayName(), skill);
+            addPattern(skill.name().replace('_', ' '), skill);
+            for (String alias : SkillResolver.aliasesOf(skill)) {
+                if (alias.length() >= MIN_ALIAS_LENGTH && !TEXT_STOP_ALIASES.contains(alias)) {
+                    addPattern(alias, skill);
+                }
+            }
+        }
+        buildLinks();
+    }
+
+    /**
+     * Навыки, упомянутые в текстах. Пустые и null тексты пропускаются.
+     */
+    public Set<Skills> extract(String... texts) {
+        Set<Skills> found = EnumSet.noneOf(Skills.class);
+        for (String text : texts) {
+            if (text != null && !text.isBlank()) {
+                scan(normalize(text), found);
+            }
+        }
+        return found;
+    }
+
+    private void scan(char[] text, Set<Skills> found) {
+        // Совпадения в порядке конца; одно совпадение - {начало, конец, ordinal навыка}
+        List<int[]> matches = new ArrayList<>();
+        int state = 0;
+        for (int i = 0; i < text.length; i++) {
+            char c = text[i];
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = Math.max(next, 0);
+
+            for (int node = outputSkill.get(state) != null ? state : outputLink[state];
+                 node > 0;
+                 node = outputLink[node]) {
+                int start = i - outputLength.get(node) + 1;
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    matches.add(new int[]{start, i, outputSkill.get(node).ordinal()});
+                }
+            }
+        }
+
+        Skills[] skills = Skills.values();
+        for (int[] match : matches) {
+            if (!isNested(match, matches)) {
+                found.add(skills[match[2]]);
+            }
+        }
+    }
+
+    private static boolean isNested(int[] match, List<int[]> matches) {
+        for (int[] other : matches) {
+            if (other != match && other[0] <= match[0] && other[1] >= match[1]
+                    && other[1] - other[0] > match[1] - match[0]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isBoundary(char[] text, int index) {
+        return index < 0 || index >= text.length || !Character.isLetterOrDigit(text[index]);
+    }
+
+    // Нижний регистр; дефисы, подчеркивания, слэши и пробельные символы - один пробел
+    static char[] normalize(String text) {
+        char[] result = new char[text.length()];
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c) || c == '-' || c == '_' || c == '/') {
+                if (length > 0 && result[length - 1] != ' ') {
+                    result[length++] = ' ';
+                }
+            } else {
+                result[length++] = Character.toLowerCase(c);
+            }
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private void addPattern(String pattern, Skills skill) {
+        char[] chars = normalize(pattern.trim());
+        if (chars.length == 0) {
+            return;
+        }
+        int state = 0;
+        for (char c : chars) {
+            int next = transition(state, c);
+            if (next < 0) {
+                next = newNode();
+                addTransition(state, c, next);
+            }
+            state = next;
+        }
+        if (outputSkill.get(state) == null) {
+            outputSkill.set(state, skill);
+            outputLength.set(state, chars.length);
+        }
+    }
+
+    private void buildLinks() {
+        int size = labels.size();
+        fail = new int[size];
+        outputLink = new int[size];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : targets.get(0)) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            char[] nodeLabels = labels.get(node);
+            int[] nodeTargets = targets.get(node);
+            for (int i = 0; i < nodeLabels.length; i++) {
+                int child = nodeTargets[i];
+                int f = fail[node];
+                int next;
+                while ((next = transition(f, nodeLabels[i])) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = next >= 0 && next != child ? next : 0;
+                outputLink[child] = outputSkill.get(fail[child]) != null ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int newNode() {
+        labels.add(new char[0]);
+        targets.add(new int[0]);
+        outputSkill.add(null);
+        outputLength.add(-1);
+        return labels.size() - 1;
+    }
+
+    private void addTransition(int node, char label, int target) {
+        char[] nodeLabels = labels.get(node);
+        int[] nodeTargets = targets.get(node);
+        int position = -(Arrays.binarySearch(nodeLabels, label) + 1);
+        char[] newLabels = new char[nodeLabels.length + 1];
+        int[] newTargets = new int[nodeTargets.length + 1];
+        System.arraycopy(nodeLabels, 0, newLabels, 0, position);
+        System.arraycopy(nodeTargets, 0, newTargets, 0, position);
+        newLabels[position] = label;
+        newTargets[position] = target;
+        System.arraycopy(nodeLabels, position, newLabels, position + 1, nodeLabels.length - position);
+        System.arraycopy(nodeTargets, position, newTargets, position + 1, nodeTargets.length - position);
+        labels.set(node, newLabels);
+        targets.set(node, newTargets);
+    }
+
+    private int transition(int node, char label) {
+        int index = Arrays.binarySearch(labels.get(node), label);
+        return index >= 0 ? targets.get(node)[index] : -1;
+    }
+}
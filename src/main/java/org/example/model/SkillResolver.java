@@ -0,0 +1,303 @@
+package org.example.model;
+
+import java.util.*;
+
+/**
+ * Предвычисленный поиск навыков по строке пользователя.
+ * <p>
+ * Ключ - строка в нижнем регистре только из букв и цифр: "Node.js", "NODE_JS" и "node js"
+ * дают один ключ "nodejs". Точное совпадение ищется в хеш-таблице с открытой адресацией
+ * прямо по символам входной строки, без исключений и без создания объектов.
+ * Для автодополнения используется префиксное дерево с заранее ранжированными навыками в каждом узле.
+ */
+public final class SkillResolver {
+
+    // Чем меньше, тем выше в подсказках
+    private static final int RANK_NAME = 0;
+    private static final int RANK_ALIAS = 1;
+    private static final int RANK_WORD = 2;
+
+    private static final int MIN_CONTAINS_LENGTH = 2;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private static final Map<Skills, List<String>> ALIASES = Map.ofEntries(
+            Map.entry(Skills.SPRING, List.of("spring")),
+            Map.entry(Skills.SPRING_BOOT, List.of("springboot")),
+            Map.entry(Skills.POSTGRESQL, List.of("postgres", "pg", "psql")),
+            Map.entry(Skills.MONGODB, List.of("mongo")),
+            Map.entry(Skills.NODE_JS, List.of("node", "nodejs")),
+            Map.entry(Skills.JAVASCRIPT, List.of("js", "ecmascript")),
+            Map.entry(Skills.TYPESCRIPT, List.of("ts")),
+            Map.entry(Skills.REACT, List.of("reactjs")),
+            Map.entry(Skills.ANGULAR, List.of("angularjs")),
+            Map.entry(Skills.VUE, List.of("vue", "vuejs")),
+            Map.entry(Skills.KUBERNETES, List.of("k8s")),
+            Map.entry(Skills.AWS, List.of("amazon web services")),
+            Map.entry(Skills.GCP, List.of("gcp", "google cloud platform")),
+            Map.entry(Skills.GITLAB_CI, List.of("gitlab")),
+            Map.entry(Skills.INTELLIJ_IDEA, List.of("intellij", "idea")),
+            Map.entry(Skills.VS_CODE, List.of("vscode", "visual studio code")),
+            Map.entry(Skills.SOAP_UI, List.of("soap ui")),
+            Map.entry(Skills.APACHE_SPARK, List.of("spark", "pyspark")),
+            Map.entry(Skills.REACT_NATIVE, List.of("rn")),
+            Map.entry(Skills.TENSORFLOW, List.of("tf"))
+    );
+
+    private static final Skills[] SKILLS = Skills.values();
+
+    // Хеш-таблица: ключи и навыки, длина - степень двойки
+    private final char[][] keys;
+    private final Skills[] values;
+    private final int mask;
+
+    // Ключи навыков по порядку объявления - для поиска по вхождению подстроки
+    private final char[][] containsKeys;
+    private final Skills[] containsValues;
+
+    private final TrieNode root = new TrieNode();
+
+    private final ThreadLocal<char[]> buffer = ThreadLocal.withInitial(() -> new char[MAX_KEY_LENGTH]);
+
+    private static final SkillResolver INSTANCE = new SkillResolver();
+
+    public static SkillResolver getInstance() {
+        return INSTANCE;
+    }
+
+    private SkillResolver() {
+        Map<String, Skills> exact = new LinkedHashMap<>();
+        Map<String, Integer> ranks = new HashMap<>();
+        List<char[]> containsKeyList = new ArrayList<>();
+        List<Skills> containsValueList = new ArrayList<>();
+
+        for (Skills skill : SKILLS) {
+            String display = normalize(skill.getDisplayName());
+            addKey(exact, ranks, normalize(skill.name()), skill, RANK_NAME);
+            addKey(exact, ranks, display, skill, RANK_NAME);
+            for (String alias : aliasesOf(skill)) {
+                addKey(exact, ranks, normalize(alias), skill, RANK_ALIAS);
+            }
+            containsKeyList.add(display.toCharArray());
+            containsValueList.add(skill);
+
+            // Отдельные слова названия ("Spring Boot" -> "boot") - только для подсказок
+            String[] words = skill.getDisplayName().split("\\s+");
+            for (int i = 1; i < words.length; i++) {
+                insert(normalize(words[i]), skill, RANK_WORD);
+            }
+        }
+
+        int capacity = Integer.highestOneBit(exact.size() * 4 - 1) << 1;
+        keys = new char[capacity][];
+        values = new Skills[capacity];
+        mask = capacity - 1;
+        exact.forEach((key, skill) -> {
+            char[] chars = key.toCharArray();
+            int slot = hash(chars, chars.length) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = chars;
+            values[slot] = skill;
+            insert(key, skill, ranks.get(key));
+        });
+
+        containsKeys = containsKeyList.toArray(new char[0][]);
+        containsValues = containsValueList.toArray(new Skills[0]);
+        root.seal();
+    }
+
+    static List<String> aliasesOf(Skills skill) {
+        return ALIASES.getOrDefault(skill, List.of());
+    }
+
+    /**
+     * Навык по имени константы, названию или синониму; если точного совпадения нет -
+     * первый навык, название которого содержит строку или содержится в ней. Иначе null.
+     */
+    public Skills resolve(CharSequence value) {
+        if (value == null) {
+            return null;
+        }
+        char[] key = buffer.get();
+        int length = normalizeInto(value, key);
+        if (length == 0) {
+            return null;
+        }
+        if (length > key.length) {
+            // Строка длиннее любого ключа: точного совпадения быть не может
+            key = normalize(value.toString()).toCharArray();
+        } else {
+            Skills exact = lookup(key, length);
+            if (exact != null) {
+                return exact;
+            }
+        }
+        return length >= MIN_CONTAINS_LENGTH ? findContaining(key, length) : null;
+    }
+
+    /**
+     * Подсказки по префиксу: сначала совпадения по названию, затем по синонимам и отдельным словам,
+     * внутри группы - более короткие названия.
+     */
+    public List<Skills> suggest(CharSequence prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return List.of();
+        }
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            char c = prefix.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                node = node.child(Character.toLowerCase(c));
+            }
+        }
+        if (node == null || node == root) {
+            return List.of();
+        }
+        return node.ranked.subList(0, Math.min(limit, node.ranked.size()));
+    }
+
+    private Skills lookup(char[] key, int length) {
+        int slot = hash(key, length) & mask;
+        while (keys[slot] != null) {
+            if (equals(keys[slot], key, length)) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private Skills findContaining(char[] key, int length) {
+        for (int i = 0; i < containsKeys.length; i++) {
+            char[] candidate = containsKeys[i];
+            if (indexOf(candidate, candidate.length, key, length) >= 0
+                    || indexOf(key, length, candidate, candidate.length) >= 0) {
+                return containsValues[i];
+            }
+        }
+        return null;
+    }
+
+    private void insert(String key, Skills skill, int rank) {
+        TrieNode node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            node.offer(skill, rank * 1000 + skill.getDisplayName().length());
+        }
+    }
+
+    private static void addKey(Map<String, Skills> exact, Map<String, Integer> ranks,
+                               String key, Skills skill, int rank) {
+        if (key.isEmpty() || exact.containsKey(key)) {
+            return;
+        }
+        exact.put(key, skill);
+        ranks.put(key, rank);
+    }
+
+    // Возвращает длину ключа; если ключ не помещается в буфер - длину больше буфера
+    private static int normalizeInto(CharSequence value, char[] target) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (length < target.length) {
+                    target[length] = Character.toLowerCase(c);
+                }
+                length++;
+            }
+        }
+        return length;
+    }
+
+    static String normalize(String value) {
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                result.append(Character.toLowerCase(c));
+            }
+        }
+        return result.toString();
+    }
+
+    private static int hash(char[] key, int length) {
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + key[i];
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean equals(char[] stored, char[] key, int length) {
+        if (stored.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (stored[i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(char[] text, int textLength, char[] pattern, int patternLength) {
+        outer:
+        for (int i = 0; i + patternLength <= textLength; i++) {
+            for (int j = 0; j < patternLength; j++) {
+                if (text[i + j] != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static final class TrieNode {
+        private char[] labels = new char[0];
+        private TrieNode[] children = new TrieNode[0];
+        private final Map<Skills, Integer> scores = new EnumMap<>(Skills.class);
+        private List<Skills> ranked;
+
+        TrieNode child(char label) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == label) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        TrieNode childOrCreate(char label) {
+            TrieNode existing = child(label);
+            if (existing != null) {
+                return existing;
+            }
+            TrieNode created = new TrieNode();
+            labels = Arrays.copyOf(labels, labels.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            labels[labels.length - 1] = label;
+            children[children.length - 1] = created;
+            return created;
+        }
+
+        void offer(Skills skill, int score) {
+            scores.merge(skill, score, Math::min);
+        }
+
+        // После построения: ранжированный список навыков узла, промежуточные данные не нужны
+        void seal() {
+            ranked = scores.entrySet().stream()
+                    .sorted(Map.Entry.<Skills, Integer>comparingByValue()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            scores.clear();
+            for (TrieNode child : children) {
+                child.seal();
+            }
+        }
+    }
+}
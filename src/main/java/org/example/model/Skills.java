@@ -1,6 +1,7 @@
 package org.example.model;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -81,6 +82,9 @@ public enum Skills {
     BASH("Bash", "Other"),
     POWERSHELL("PowerShell", "Other");
 
+    // ВАЖНО: ordinal - номер бита в employees.skills_mask. Новые навыки добавлять только в конец,
+    // существующие не переставлять и не удалять (иначе нужна миграция масок). Максимум 64 навыка.
+
     private final String displayName;
     private final String category;
 
@@ -102,6 +106,20 @@ public enum Skills {
         return category;
     }
 
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public static long maskOf(Collection<Skills> skills) {
+        long mask = 0L;
+        if (skills != null) {
+            for (Skills skill : skills) {
+                mask |= skill.bit();
+            }
+        }
+        return mask;
+    }
+
     public static List<Skills> getByCategory(String category) {
         if (category == null || category.isBlank()) {
             return List.of();
@@ -126,136 +144,15 @@ public enum Skills {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Навык по имени константы, названию или синониму (см. {@link SkillResolver}); null, если не найден.
+     */
     public static Skills fromString(String value) {
-        if (value == null || value.isBlank()) {
-            return null;
-        }
-
-        String trimmedValue = value.trim();
-
-        System.out.println("Поиск навыка: '" + trimmedValue + "'"); // DEBUG
-
-        // 1. Прямое преобразование (как хранится в БД)
-        try {
-            Skills directMatch = Skills.valueOf(trimmedValue.toUpperCase());
-            System.out.println("Найден прямым преобразованием: " + directMatch); // DEBUG
-            return directMatch;
-        } catch (IllegalArgumentException e) {
-            System.out.println("Прямое преобразование не удалось"); // DEBUG
-        }
-
-        // 2. Нормализация строки для поиска по имени enum
-        String normalized = normalizeForEnumSearch(trimmedValue);
-        try {
-            Skills normalizedMatch = Skills.valueOf(normalized);
-            System.out.println("Найден после нормализации '" + normalized + "': " + normalizedMatch); // DEBUG
-            return normalizedMatch;
-        } catch (IllegalArgumentException e) {
-            System.out.println("Поиск по нормализованному имени не удалось: " + normalized); // DEBUG
-        }
-
-        // 3. Поиск по displayName (без учета регистра)
-        for (Skills skill : values()) {
-            if (skill.getDisplayName().equalsIgnoreCase(trimmedValue)) {
-                System.out.println("Найден по displayName: " + skill); // DEBUG
-                return skill;
-            }
-        }
-
-        // 4. Поиск по частичному совпадению displayName
-        for (Skills skill : values()) {
-            if (skill.getDisplayName().toLowerCase().contains(trimmedValue.toLowerCase()) ||
-                    trimmedValue.toLowerCase().contains(skill.getDisplayName().toLowerCase())) {
-                System.out.println("Найден по частичному совпадению: " + skill); // DEBUG
-                return skill;
-            }
-        }
-
-        // 5. Специальные случаи для удобства
-        Map<String, Skills> specialCases = Map.ofEntries(
-                Map.entry("spring", SPRING),
-                Map.entry("spring boot", SPRING_BOOT),
-                Map.entry("springboot", SPRING_BOOT),
-                Map.entry("node.js", NODE_JS),
-                Map.entry("nodejs", NODE_JS),
-                Map.entry("vue.js", VUE),
-                Map.entry("vuejs", VUE),
-                Map.entry("vs code", VS_CODE),
-                Map.entry("vscode", VS_CODE),
-                Map.entry("gitlab ci", GITLAB_CI),
-                Map.entry("gitlabci", GITLAB_CI),
-                Map.entry("github actions", GITHUB_ACTIONS),
-                Map.entry("githubactions", GITHUB_ACTIONS),
-                Map.entry("react native", REACT_NATIVE),
-                Map.entry("reactnative", REACT_NATIVE),
-                Map.entry("apache spark", APACHE_SPARK),
-                Map.entry("apachespark", APACHE_SPARK),
-                Map.entry("google cloud", GCP),
-                Map.entry("googlecloud", GCP),
-                Map.entry("postgresql", POSTGRESQL),
-                Map.entry("postgres", POSTGRESQL),
-                Map.entry("mysql", MYSQL),
-                Map.entry("mongodb", MONGODB),
-                Map.entry("intellij idea", INTELLIJ_IDEA),
-                Map.entry("intellij", INTELLIJ_IDEA),
-                Map.entry("pytest", PYTEST),
-                Map.entry("soapui", SOAP_UI),
-                Map.entry("soap ui", SOAP_UI)
-        );
-
-        String lowerValue = trimmedValue.toLowerCase();
-        Skills specialCase = specialCases.get(lowerValue);
-        if (specialCase != null) {
-            System.out.println("Найден в specialCases: " + specialCase); // DEBUG
-            return specialCase;
-        }
-
-        System.out.println("Навык не найден: '" + trimmedValue + "'"); // DEBUG
-        return null;
-    }
-
-    private static String normalizeForEnumSearch(String value) {
-        return value.toUpperCase()
-                .replace(" ", "_")
-                .replace(".", "")
-                .replace("-", "_")
-                .replace("__", "_") // Убираем двойные подчеркивания
-                .trim();
-    }
-
-    // Метод для отладки - показывает все доступные навыки
-    public static void printAllSkills() {
-        System.out.println("=== ДОСТУПНЫЕ НАВЫКИ ===");
-        for (Skills skill : values()) {
-            System.out.println(skill.name() + " -> \"" + skill.getDisplayName() + "\" (" + skill.getCategory() + ")");
-        }
-        System.out.println("========================");
+        return SkillResolver.getInstance().resolve(value);
     }
 
-    // Метод для поиска по любому возможному варианту (самый агрессивный поиск)
+    // Метод для поиска по любому возможному варианту (имя, название, синонимы)
     public static Skills findAny(String value) {
-        if (value == null || value.isBlank()) {
-            return null;
-        }
-
-        String trimmed = value.trim().toLowerCase();
-
-        // Пробуем все возможные варианты
-        for (Skills skill : values()) {
-            // Сравниваем с name (верхний регистр)
-            if (skill.name().toLowerCase().equals(trimmed)) {
-                return skill;
-            }
-            // Сравниваем с displayName
-            if (skill.getDisplayName().toLowerCase().equals(trimmed)) {
-                return skill;
-            }
-            // Сравниваем с нормализованным name
-            if (normalizeForEnumSearch(skill.name()).toLowerCase().equals(trimmed)) {
-                return skill;
-            }
-        }
-
         return fromString(value);
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package org.example.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Состояние фоновой задачи обработки таблицы сотрудников.
+ */
+public record BackfillStatus(boolean running,
+                             long processed,
+                             long written,
+                             LocalDateTime startedAt,
+                             LocalDateTime finishedAt,
+                             String error) {
+
+    public static final BackfillStatus IDLE = new BackfillStatus(false, 0, 0, null, null, null);
+}
@@ -0,0 +1,12 @@
+package org.example.model.dto;
+
+/**
+ * Состояние региона кэша второго уровня: размер и счетчики с момента запуска.
+ */
+public record CacheRegionStats(String region,
+                               long size,
+                               long hits,
+                               long misses,
+                               double hitRate,
+                               long evictions) {
+}
@@ -0,0 +1,13 @@
+package org.example.model.dto;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации. nextCursor == null, если дальше записей нет.
+ */
+public record CursorPage<T>(List<T> content, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
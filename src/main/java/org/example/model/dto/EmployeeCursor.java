@@ -0,0 +1,35 @@
+package org.example.model.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция keyset-пагинации: последний показанный (name, id).
+ * Клиенту отдается как непрозрачный токен.
+ */
+public record EmployeeCursor(String name, Long id) {
+
+    public static final EmployeeCursor START = new EmployeeCursor("", 0L);
+
+    public String encode() {
+        String raw = id + ":" + (name != null ? name : "");
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EmployeeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Некорректный курсор пагинации");
+            }
+            return new EmployeeCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Некорректный курсор пагинации", e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonSetter;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.model.RatingStats;
+import org.example.model.Skills;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Карточка сотрудника для страниц профиля и отзывов и для REST: поля сотрудника, навыки,
+ * образование, страница отзывов и агрегаты рейтинга. Собирается в PostgreSQL одним запросом
+ * в JSON (EmployeeRepositoryCustom.findDetailView) и разбирается в этот класс.
+ */
+@Data
+@NoArgsConstructor
+public class EmployeeDetailView {
+    private Long id;
+    private String name;
+    private String position;
+    private String department;
+    private String email;
+    private String phoneNumber;
+    private String telegram;
+    private String school;
+    private String about;
+    private String resume;
+    private String photoPath;
+    private boolean active;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    @Setter(AccessLevel.NONE)
+    private Set<Skills> skills = EnumSet.noneOf(Skills.class);
+    private List<EducationItem> educations = new ArrayList<>();
+    private List<ReviewItem> reviews = new ArrayList<>();
+    private int reviewPage;
+    private int reviewSize;
+
+    // Колонки employees как есть; в ответ API отдается getRating()
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private RatingStats ratingStats = RatingStats.empty();
+
+    @Data
+    @NoArgsConstructor
+    public static class EducationItem {
+        private Long id;
+        private Integer yearStart;
+        private Integer yearEnd;
+        private String university;
+        private String degree;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ReviewItem {
+        private Long id;
+        private Integer rating;
+        private String comment;
+        private LocalDateTime createdAt;
+    }
+
+    // В БД навыки хранятся именами констант, а в JSON API Skills пишется названием (@JsonValue)
+    @JsonSetter("skills")
+    public void setSkillNames(List<String> names) {
+        skills = EnumSet.noneOf(Skills.class);
+        for (String name : names) {
+            skills.add(Skills.valueOf(name));
+        }
+    }
+
+    public RatingSummary getRating() {
+        return RatingSummary.of(ratingStats);
+    }
+
+    /**
+     * Количество страниц отзывов; общее число берется из агрегатов, без COUNT по reviews.
+     */
+    public int getReviewTotalPages() {
+        return reviewSize > 0 ? (ratingStats.getReviewCount() + reviewSize - 1) / reviewSize : 0;
+    }
+
+    public String getDisplayPhotoPath() {
+        return (photoPath != null && !photoPath.trim().isEmpty()) ?
+                photoPath : "/images/default.jpg";
+    }
+}
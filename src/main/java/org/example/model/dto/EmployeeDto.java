@@ -18,4 +18,8 @@ public class EmployeeDto {
     private String comment;
     private String position;
 
+    // Для конструкторных проекций EmployeeRepositoryDto
+    public EmployeeDto(Long id, String name, String phone, String email, String position) {
+        this(id, name, phone, email, null, position);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package org.example.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.example.model.RatingStats;
+import org.example.model.Skills;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Строка списка сотрудников и быстрого просмотра: только узкие колонки employees
+ * и навыки, собранные в БД (string_agg). Резюме, образование, "о себе" и настройки не читаются.
+ * Агрегаты рейтинга читаются той же строкой; в JSON они попадают только через RatedEmployee.
+ * Имена свойств совпадают с Employee, поэтому шаблоны списка не меняются. В JSON это подмножество
+ * полей Employee: REST-список и быстрый поиск отдают строку только с view=row, по умолчанию - Employee.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class EmployeeListRow {
+    private final Long id;
+    private final String name;
+    private final String position;
+    private final String department;
+    private final String email;
+    private final String phoneNumber;
+    private final boolean active;
+    private final String photoPath;
+    private final LocalDateTime createdAt;
+    private final Set<Skills> skills;
+    @JsonIgnore
+    private final RatingStats ratingStats;
+
+    public String getDisplayPhotoPath() {
+        return (photoPath != null && !photoPath.trim().isEmpty()) ?
+                photoPath : "/images/default.jpg";
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.model.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * Все данные страницы списка сотрудников, собранные одним запросом:
+ * строки страницы, общее количество, количество активных и справочники фильтров.
+ */
+public record EmployeePageBundle(Page<EmployeeListRow> page,
+                                 long activeTotal,
+                                 List<String> departments,
+                                 List<String> positions) {
+}
@@ -0,0 +1,35 @@
+package org.example.model.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Состояние задачи импорта сотрудников (EmployeeImportService).
+ * rowsRead - прочитано строк данных, failed - строки с ошибками (в errors - не больше первых
+ * EmployeeImportService.MAX_REPORTED_ERRORS), skipped - дубликаты email в файле и удаленные сотрудники.
+ * error - причина FAILED (в БД ничего не записано) или, для COMPLETED, предупреждение о кэшах,
+ * которые не удалось обновить после записи.
+ */
+public record ImportJobStatus(String id,
+                              String fileName,
+                              State state,
+                              long rowsRead,
+                              long inserted,
+                              long updated,
+                              long failed,
+                              long skipped,
+                              List<RowError> errors,
+                              LocalDateTime startedAt,
+                              LocalDateTime finishedAt,
+                              String error) {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    /**
+     * Ошибка строки; row - номер строки в файле с единицы, включая заголовок.
+     */
+    public record RowError(long row, String email, String message) {
+    }
+}
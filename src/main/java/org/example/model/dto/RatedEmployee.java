@@ -0,0 +1,10 @@
+package org.example.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+/**
+ * Сотрудник в списке с includeRatings=true: поля сотрудника плюс объект rating.
+ * Сотрудник - Employee (view=full) или EmployeeListRow (view=row).
+ */
+public record RatedEmployee(@JsonUnwrapped Object employee, RatingSummary rating) {
+}
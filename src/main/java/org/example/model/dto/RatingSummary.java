@@ -0,0 +1,15 @@
+package org.example.model.dto;
+
+import org.example.model.RatingStats;
+
+/**
+ * Рейтинг сотрудника в ответах API: количество отзывов, средняя оценка
+ * и гистограмма (элемент 0 - одна звезда, элемент 4 - пять звезд).
+ */
+public record RatingSummary(int reviewCount, double average, int[] histogram) {
+
+    public static RatingSummary of(RatingStats stats) {
+        RatingStats source = stats != null ? stats : RatingStats.empty();
+        return new RatingSummary(source.getReviewCount(), source.getAverage(), source.getHistogram());
+    }
+}
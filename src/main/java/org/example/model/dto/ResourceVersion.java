@@ -0,0 +1,41 @@
+package org.example.model.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Версия ресурса для условных GET-запросов: время последнего изменения (updated_at)
+ * и количество строк. Для одного сотрудника count = 1, для списка - max(updated_at)
+ * и количество сотрудников под фильтром (удаление меняет количество).
+ */
+public record ResourceVersion(LocalDateTime lastModified, long count) {
+
+    public static final ResourceVersion EMPTY = new ResourceVersion(null, 0);
+
+    public static ResourceVersion of(LocalDateTime lastModified) {
+        return new ResourceVersion(lastModified, 1);
+    }
+
+    /**
+     * Сильный ETag. В него входят вид представления и параметры запроса:
+     * одинаковый тег должен означать побайтно одинаковое тело ответа.
+     */
+    public String etag(Object... representation) {
+        String source = lastModified + "|" + count + "|" + Arrays.toString(representation);
+        return "\"" + DigestUtils.md5DigestAsHex(source.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Last-Modified в миллисекундах или -1, если время неизвестно.
+     * Метки в БД без часового пояса и пишутся во времени сервера.
+     */
+    public long lastModifiedMillis() {
+        return lastModified != null
+                ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+    }
+}
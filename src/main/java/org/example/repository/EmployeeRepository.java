@@ -1,21 +1,33 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.model.Employee;
+import org.example.model.RatingStats;
 import org.example.model.Review;
 import org.example.model.Skills;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>,
+        JpaSpecificationExecutor<Employee>, EmployeeRepositoryCustom {
+
+    // Пространство запроса для addRating (см. ниже)
+    String RATING_STATS_SPACE = "employee_rating_stats";
 
     // === ОСНОВНЫЕ МЕТОДЫ ПОИСКА ===
     Optional<Employee> findByIdAndDeletedFalse(Long id);
@@ -25,32 +37,72 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Page<Employee> findByDeletedFalse(Pageable pageable);
     Page<Employee> findByDeletedTrue(Pageable pageable);
 
+    // Результат (id) кэшируется, сама сущность берется из кэша второго уровня;
+    // запись в employees сбрасывает кэш запроса по метке времени таблицы
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Employee> findByEmailAndDeletedFalse(String email);
+
+    // Карточка сотрудника: навыки и образование одним запросом (граф Employee.detail)
+    @EntityGraph(Employee.DETAIL_GRAPH)
+    Optional<Employee> findDetailById(Long id);
+
+    // Несколько карточек тем же планом - для JSON сотрудника целиком в REST-списке (view=full)
+    @EntityGraph(Employee.DETAIL_GRAPH)
+    @Query("SELECT e FROM Employee e WHERE e.id IN :ids")
+    List<Employee> findDetailByIdIn(@Param("ids") Collection<Long> ids);
     // === ПАГИНАЦИЯ ===
     @Query("SELECT e FROM Employee e WHERE e.deleted = false ORDER BY e.id")
     List<Employee> findAllActivePaginated(Pageable pageable);
 
-    @Query("SELECT e FROM Employee e WHERE " +
-            "(:name IS NULL OR :name = '' OR LOWER(e.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "e.deleted = false ORDER BY e.name ASC")
+    @Query("SELECT e FROM Employee e WHERE e.deleted = false ORDER BY e.name ASC, e.id ASC")
+    List<Employee> findAllActiveByNamePaginated(Pageable pageable);
+
+    // === ПОИСК ПО ПОДСТРОКЕ (триграммные индексы, V3__employees_trigram_indexes.sql) ===
+    // Выражение LOWER(e.name) совпадает с индексом idx_employees_name_trgm,
+    // самые похожие имена идут первыми. '%', '_' и '\' во введенной строке экранируются
+    // (как containsPattern в quickSearch) и ищутся как обычные символы
+    String NAME_CONTAINS = "LOWER(e.name) LIKE '%' || replace(replace(replace(LOWER(:name), " +
+            "'\\', '\\\\'), '%', '\\%'), '_', '\\_') || '%' ESCAPE '\\'";
+
+    @Query(value = "SELECT e.* FROM employees e WHERE e.deleted = false " +
+            "AND " + NAME_CONTAINS + " " +
+            "ORDER BY similarity(LOWER(e.name), LOWER(:name)) DESC, e.name, e.id",
+            nativeQuery = true)
     List<Employee> findActiveByNameContainingPaginated(@Param("name") String name,
                                                        Pageable pageable);
 
-    // === ПОИСК С ФИЛЬТРАЦИЕЙ ===
-    @Query("SELECT e FROM Employee e WHERE " +
-            "(:name IS NULL OR :name = '' OR LOWER(e.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:skill IS NULL OR :skill = '' OR :skill MEMBER OF e.skills) AND " +
-            "(:departments IS NULL OR e.department IN :departments) AND " +
-            "(:positions IS NULL OR e.position IN :positions) AND " +
-            "(:active IS NULL OR e.active = :active) AND " +
-            "e.deleted = :deleted")
-    Page<Employee> findWithFilters(@Param("name") String name,
-                                   @Param("skill") String skill,
-                                   @Param("departments") List<String> departments,
-                                   @Param("positions") List<String> positions,
-                                   @Param("active") Boolean active,
-                                   @Param("deleted") boolean deleted,
-                                   Pageable pageable);
+    @Query(value = "SELECT e.* FROM employees e WHERE e.deleted = false " +
+            "AND " + NAME_CONTAINS + " " +
+            "ORDER BY similarity(LOWER(e.name), LOWER(:name)) DESC, e.name, e.id",
+            nativeQuery = true)
+    List<Employee> findByNameContainingAndDeletedFalse(@Param("name") String name);
+
+    @Query(value = "SELECT e.* FROM employees e WHERE e.deleted = false " +
+            "AND " + NAME_CONTAINS + " " +
+            "ORDER BY similarity(LOWER(e.name), LOWER(:name)) DESC, e.name, e.id",
+            countQuery = "SELECT COUNT(*) FROM employees e WHERE e.deleted = false " +
+                    "AND " + NAME_CONTAINS,
+            nativeQuery = true)
+    Page<Employee> findByNameContainingAndDeletedFalse(@Param("name") String name, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) FROM employees e WHERE e.deleted = false " +
+            "AND " + NAME_CONTAINS,
+            nativeQuery = true)
+    long countByNameContainingAndDeletedFalse(@Param("name") String name);
+
+    // Только id страницы поиска; строки списка - через findListRowsByIdInOrder
+    @Query(value = "SELECT e.id FROM employees e WHERE e.deleted = false " +
+            "AND " + NAME_CONTAINS + " " +
+            "ORDER BY similarity(LOWER(e.name), LOWER(:name)) DESC, e.name, e.id",
+            countQuery = "SELECT COUNT(*) FROM employees e WHERE e.deleted = false " +
+                    "AND " + NAME_CONTAINS,
+            nativeQuery = true)
+    Page<Long> findActiveIdsByNameContaining(@Param("name") String name, Pageable pageable);
+
+    @Query("SELECT e.id FROM Employee e WHERE e.deleted = false")
+    Page<Long> findActiveIds(Pageable pageable);
+
+    // Поиск с фильтрами и keyset-страницы - через EmployeeSpecifications (JpaSpecificationExecutor)
 
     // === МЕТОДЫ ДЛЯ НАВЫКОВ ===
     @Query("SELECT e FROM Employee e JOIN e.skills s WHERE s = :skill AND e.deleted = false")
@@ -59,41 +111,63 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     @Query("SELECT e FROM Employee e WHERE :skill MEMBER OF e.skills AND e.deleted = false")
     List<Employee> findBySkillContains(@Param("skill") Skills skill);
 
-    @Modifying
-    @Transactional
-    @Query("UPDATE Employee e SET e.skills = :skills WHERE e.id = :id")
-    void updateSkills(@Param("id") Long id, @Param("skills") Set<Skills> skills);
+    // Пары (id, skills_mask) неудаленных сотрудников для построения SkillIndex
+    @Query(value = "SELECT e.id, e.skills_mask FROM employees e WHERE e.deleted = false",
+            nativeQuery = true)
+    List<Object[]> findActiveSkillMasks();
 
     // === МЕТОДЫ ДЛЯ СТАТИСТИКИ И АГРЕГАЦИИ ===
+    // Агрегаты отзывов (V7__employees_rating_stats.sql): одно атомарное обновление строки сотрудника,
+    // без чтения и без гонки между параллельными отзывами
+    // Пространство запроса - отдельная метка, не таблица сущности: Hibernate не сбрасывает ни регион
+    // Employee, ни другие регионы. Строку этого сотрудника из кэша убирает EmployeeService после коммита
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = RATING_STATS_SPACE))
+    @Query(value = "UPDATE employees SET review_count = review_count + 1, " +
+            "rating_sum = rating_sum + :rating, " +
+            "rating_1 = rating_1 + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+            "rating_2 = rating_2 + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+            "rating_3 = rating_3 + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+            "rating_4 = rating_4 + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+            "rating_5 = rating_5 + CASE WHEN :rating = 5 THEN 1 ELSE 0 END " +
+            "WHERE id = :id",
+            nativeQuery = true)
+    int addRating(@Param("id") Long id, @Param("rating") int rating);
+
+    @Query("SELECT e.ratingStats FROM Employee e WHERE e.id = :id")
+    Optional<RatingStats> findRatingStatsById(@Param("id") Long id);
+
+    // Версия сотрудника для условного GET - без загрузки сущности
+    @Query("SELECT COALESCE(e.updatedAt, e.createdAt) FROM Employee e WHERE e.id = :id AND e.deleted = false")
+    Optional<LocalDateTime> findLastModifiedById(@Param("id") Long id);
+
     long countByDeletedFalse();
     long countByDeletedTrue();
-    long countByNameContainingAndDeletedFalse(String name);
     boolean existsByIdAndDeletedFalse(Long id);
+    boolean existsByIdAndDeletedTrue(Long id);
 
     // === ПОИСК ПО РАЗЛИЧНЫМ ПОЛЯМ ===
-    List<Employee> findByNameContainingAndDeletedFalse(String name);
-    Page<Employee> findByNameContainingAndDeletedFalse(String name, Pageable pageable);
     List<Employee> findByEmailContainingAndDeletedFalse(String email);
     List<Employee> findByDepartmentAndDeletedFalse(String department);
 
     // === УТИЛИТНЫЕ МЕТОДЫ ===
+    // Тройки (id, department, position) неудаленных сотрудников для построения EmployeeDictionary
+    @Query(value = "SELECT e.id, e.department, e.position FROM employees e WHERE e.deleted = false",
+            nativeQuery = true)
+    List<Object[]> findActiveDepartmentsAndPositions();
+
+    // Пары (photo_path, число сотрудников) для файлов хранилища по содержимому - для сборки мусора PhotoStorage
+    @Query(value = "SELECT e.photo_path, COUNT(*) FROM employees e WHERE e.photo_path LIKE '/photos/%' " +
+            "GROUP BY e.photo_path",
+            nativeQuery = true)
+    List<Object[]> countPhotoReferences();
+
     @Query("SELECT DISTINCT e.department FROM Employee e WHERE e.department IS NOT NULL AND e.deleted = false ORDER BY e.department")
     List<String> findDistinctDepartments();
 
     @Query("SELECT DISTINCT e.position FROM Employee e WHERE e.position IS NOT NULL AND e.deleted = false ORDER BY e.position")
     List<String> findDistinctPositions();
 
-    // === МЕТОДЫ ДЛЯ УДАЛЕННЫХ СОТРУДНИКОВ ===
-    @Query("SELECT e FROM Employee e WHERE " +
-            "e.deleted = true AND " +
-            "(:name IS NULL OR LOWER(e.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:departments IS NULL OR e.department IN :departments) AND " +
-            "(:positions IS NULL OR e.position IN :positions)")
-    Page<Employee> findDeletedWithFilters(@Param("name") String name,
-                                          @Param("departments") List<String> departments,
-                                          @Param("positions") List<String> positions,
-                                          Pageable pageable);
-
     // === NATIVE QUERIES ДЛЯ СЛОЖНЫХ ОПЕРАЦИЙ ===
     @Modifying
     @Transactional
@@ -108,31 +182,8 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     void restore(@Param("id") Long id);
 
     // === СУЩЕСТВУЮЩИЕ МЕТОДЫ ===
-    @Query("SELECT e FROM Employee e WHERE " +
-            "(:name = '' OR LOWER(e.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:position = '' OR e.position = :position) AND " +
-            "(:department = '' OR e.department = :department)")
-    Page<Employee> findByNameContainingAndPositionAndDepartment(
-            @Param("name") String name,
-            @Param("position") String position,
-            @Param("department") String department,
-            Pageable pageable
-    );
-
-    @Modifying
-    @Transactional
-    @Query(value = "INSERT INTO employee_skills (employee_id, skill) VALUES (:employeeId, :skill)",
-            nativeQuery = true)
-    void addSkillToEmployee(@Param("employeeId") Long employeeId,
-                            @Param("skill") String skill);
-
-    @Modifying
-    @Transactional
-    @Query(value = "DELETE FROM employee_skills WHERE employee_id = :employeeId AND skill = :skill",
-            nativeQuery = true)
-    void removeSkillFromEmployee(@Param("employeeId") Long employeeId,
-                                 @Param("skill") String skill);
-
+    // Навыки меняются только через сущность (Employee.setSkills): вместе с employee_skills
+    // обновляется skills_mask, а после коммита - SkillIndex
     @Query(value = "SELECT skill FROM employee_skills WHERE employee_id = :employeeId",
             nativeQuery = true)
     Set<String> findSkillsByEmployeeId(@Param("employeeId") Long employeeId);
@@ -147,24 +198,4 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Page<Employee> findByNameContaining(String name, Pageable pageable);
 
     long countByNameContaining(String name);
-
-    @Query("SELECT e FROM Employee e JOIN e.skills s WHERE s IN :skillNames")
-    List<Employee> findBySkillsIn(@Param("skillNames") List<String> skillNames);
-
-    // === МЕТОД ДЛЯ ПОДСЧЕТА С ФИЛЬТРАМИ ===
-    @Query("SELECT COUNT(e) FROM Employee e WHERE " +
-            "(:name IS NULL OR :name = '' OR LOWER(e.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
-            "(:skill IS NULL OR :skill = '' OR :skill MEMBER OF e.skills) AND " +
-            "(:departments IS NULL OR e.department IN :departments) AND " +
-            "(:positions IS NULL OR e.position IN :positions) AND " +
-            "(:active IS NULL OR e.active = :active) AND " +
-            "e.deleted = :deleted")
-    long countWithFilters(@Param("name") String name,
-                          @Param("skill") String skill,
-                          @Param("departments") List<String> departments,
-                          @Param("positions") List<String> positions,
-                          @Param("active") Boolean active,
-                          @Param("deleted") boolean deleted);
-
-
 }
\ No newline at end of file
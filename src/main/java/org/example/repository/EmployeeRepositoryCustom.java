@@ -0,0 +1,64 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.model.dto.EmployeeDetailView;
+import org.example.model.dto.EmployeeListRow;
+import org.example.model.dto.EmployeePageBundle;
+import org.example.model.dto.ResourceVersion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Страница списка сотрудников вместе с общим количеством (оконный COUNT) и количеством активных.
+     * Списки отделов/должностей в результате пустые - их берет из памяти EmployeeService (EmployeeDictionary).
+     * skillsMask - маска навыков, которые должны быть у сотрудника все сразу (0 - без фильтра).
+     */
+    EmployeePageBundle findPageBundle(String name, long skillsMask,
+                                      List<String> departments, List<String> positions,
+                                      Boolean active, Pageable pageable);
+
+    /**
+     * id первых limit строк по условию без COUNT-запроса (для keyset-пагинации).
+     */
+    List<Long> findFirstIds(Specification<Employee> spec, Sort sort, int limit);
+
+    /**
+     * Страница id по условию и общее количество; сами строки - через {@link #findListRowsByIdInOrder}.
+     */
+    Page<Long> findIds(Specification<Employee> spec, Pageable pageable);
+
+    /**
+     * Быстрый поиск по подстроке в имени, email и цифрах телефона,
+     * самые похожие совпадения первыми.
+     */
+    List<EmployeeListRow> quickSearch(String text, int limit);
+
+    /**
+     * Строки списка по списку id в том же порядке; отсутствующие пропускаются.
+     * Один запрос: узкие колонки employees и навыки, агрегированные в БД.
+     */
+    List<EmployeeListRow> findListRowsByIdInOrder(List<Long> ids);
+
+    /**
+     * Строка неудаленного сотрудника для быстрого просмотра.
+     */
+    Optional<EmployeeListRow> findListRow(Long id);
+
+    /**
+     * Карточка неудаленного сотрудника одним запросом: навыки, образование, страница отзывов
+     * (новые первыми, reviewSize = 0 - без отзывов) и агрегаты рейтинга собираются в JSON в PostgreSQL.
+     */
+    Optional<EmployeeDetailView> findDetailView(Long id, int reviewPage, int reviewSize);
+
+    /**
+     * Версия выборки по условию: max(updated_at) и количество строк одним агрегатным запросом.
+     */
+    ResourceVersion findVersion(Specification<Employee> spec);
+}
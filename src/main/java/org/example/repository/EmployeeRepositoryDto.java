@@ -1,10 +1,24 @@
 package org.example.repository;
 
 import org.example.model.Employee;
+import org.example.model.dto.EmployeeDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface EmployeeRepositoryDto extends JpaRepository<Employee, Long> {
 
-}
\ No newline at end of file
+    // Конструкторные проекции: в SELECT только поля EmployeeDto, сущность и EAGER-навыки не загружаются
+    @Query("SELECT new org.example.model.dto.EmployeeDto(e.id, e.name, e.phoneNumber, e.email, e.position) " +
+            "FROM Employee e WHERE e.id = :id")
+    Optional<EmployeeDto> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT new org.example.model.dto.EmployeeDto(e.id, e.name, e.phoneNumber, e.email, e.position) " +
+            "FROM Employee e ORDER BY e.id")
+    List<EmployeeDto> findAllDtos();
+}
@@ -0,0 +1,357 @@
+package org.example.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.model.Employee;
+import org.example.model.RatingStats;
+import org.example.model.Skills;
+import org.example.model.dto.EmployeeDetailView;
+import org.example.model.dto.EmployeeListRow;
+import org.example.model.dto.EmployeePageBundle;
+import org.example.model.dto.ResourceVersion;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация нестандартных запросов {@link EmployeeRepository}.
+ */
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    private static final int MIN_PHONE_DIGITS = 3;
+
+    // Строка списка: только узкие колонки; навыки склеиваются в одну строку в БД, без отдельного
+    // запроса на коллекцию и без размножения строк JOIN-ом. resume, school, about и настройки не читаются.
+    // Агрегаты рейтинга лежат в той же строке employees: отдельный запрос за рейтингами страницы не нужен
+    private static final String LIST_ROW_SQL =
+            "SELECT e.id, e.name, e.position, e.department, e.email, e.phone_number, e.active, " +
+                    "       e.photo_path, e.created_at, string_agg(s.skill, ',' ORDER BY s.skill), " +
+                    "       e.review_count, e.rating_sum, e.rating_1, e.rating_2, e.rating_3, e.rating_4, e.rating_5 " +
+                    "FROM employees e LEFT JOIN employee_skills s ON s.employee_id = e.id ";
+
+    // Карточка: один запрос, вложенные коллекции - подзапросами с json_agg, без JOIN-ов с размножением строк.
+    // Имена ключей совпадают со свойствами EmployeeDetailView
+    private static final String DETAIL_VIEW_SQL =
+            "SELECT json_build_object(" +
+                    "  'id', e.id, 'name', e.name, 'position', e.position, 'department', e.department, " +
+                    "  'email', e.email, 'phoneNumber', e.phone_number, 'telegram', e.telegram, " +
+                    "  'school', e.school, 'about', e.about, 'resume', e.resume, 'photoPath', e.photo_path, " +
+                    "  'active', e.active, 'createdAt', e.created_at, 'updatedAt', e.updated_at, " +
+                    "  'skills', COALESCE((SELECT json_agg(s.skill ORDER BY s.skill) " +
+                    "                     FROM employee_skills s WHERE s.employee_id = e.id), '[]'::json), " +
+                    "  'educations', COALESCE((SELECT json_agg(json_build_object('id', ed.id, " +
+                    "                              'yearStart', ed.year_start, 'yearEnd', ed.year_end, " +
+                    "                              'university', ed.university, 'degree', ed.degree) " +
+                    "                          ORDER BY ed.year_start, ed.id) " +
+                    "                         FROM educations ed WHERE ed.employee_id = e.id), '[]'::json), " +
+                    "  'reviews', COALESCE((SELECT json_agg(json_build_object('id', r.id, 'rating', r.rating, " +
+                    "                              'comment', r.comment, 'createdAt', r.created_at) " +
+                    "                          ORDER BY r.created_at DESC, r.id DESC) " +
+                    "                       FROM (SELECT * FROM reviews WHERE employee_id = e.id " +
+                    "                             ORDER BY created_at DESC, id DESC " +
+                    "                             LIMIT :reviewSize OFFSET :reviewOffset) r), '[]'::json), " +
+                    "  'reviewPage', CAST(:reviewPage AS int), 'reviewSize', CAST(:reviewSize AS int), " +
+                    "  'ratingStats', json_build_object('reviewCount', e.review_count, 'ratingSum', e.rating_sum, " +
+                    "      'stars1', e.rating_1, 'stars2', e.rating_2, 'stars3', e.rating_3, " +
+                    "      'stars4', e.rating_4, 'stars5', e.rating_5)" +
+                    ")::text " +
+                    "FROM employees e WHERE e.id = :id AND e.deleted = false";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // ObjectMapper приложения: те же модули и настройки дат, что и у REST-ответов
+    private final ObjectMapper objectMapper;
+
+    public EmployeeRepositoryImpl(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public EmployeePageBundle findPageBundle(String name, long skillsMask,
+                                             List<String> departments, List<String> positions,
+                                             Boolean active, Pageable pageable) {
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder where = new StringBuilder("e.deleted = false");
+
+        if (name != null && !name.isBlank()) {
+            where.append(" AND LOWER(e.name) LIKE LOWER(CONCAT('%', :name, '%'))");
+            params.put("name", name);
+        }
+        if (skillsMask != 0L) {
+            where.append(" AND (e.skills_mask & :skillsMask) = :skillsMask");
+            params.put("skillsMask", skillsMask);
+        }
+        if (departments != null && !departments.isEmpty()) {
+            where.append(" AND e.department IN (:departments)");
+            params.put("departments", departments);
+        }
+        if (positions != null && !positions.isEmpty()) {
+            where.append(" AND e.position IN (:positions)");
+            params.put("positions", positions);
+        }
+
+        // Окна считаются до фильтра по active: количество активных не зависит от выбранного статуса,
+        // как и в countActiveWithFilters
+        String activeCondition = "TRUE";
+        if (active != null) {
+            activeCondition = "e.active = :active";
+            params.put("active", active);
+        }
+
+        String sql = "SELECT w.id, w.total, w.active_total FROM (" +
+                "   SELECT e.id, e.name, " + activeCondition + " AS matches, " +
+                "          COUNT(*) FILTER (WHERE " + activeCondition + ") OVER () AS total, " +
+                "          COUNT(*) FILTER (WHERE e.active) OVER () AS active_total " +
+                "   FROM employees e WHERE " + where +
+                ") w WHERE w.matches " +
+                "ORDER BY w.name, w.id LIMIT :limit OFFSET :offset";
+
+        Query query = entityManager.createNativeQuery(sql);
+        params.forEach(query::setParameter);
+        query.setParameter("limit", pageable.getPageSize());
+        query.setParameter("offset", pageable.getOffset());
+
+        List<Object[]> rows = query.getResultList();
+
+        if (rows.isEmpty()) {
+            // Пустая страница (например, номер за пределами списка): итоги считаем отдельно
+            Query countQuery = entityManager.createNativeQuery(
+                    "SELECT COUNT(*) FILTER (WHERE " + activeCondition + "), COUNT(*) FILTER (WHERE e.active) " +
+                            "FROM employees e WHERE " + where);
+            params.forEach(countQuery::setParameter);
+            Object[] counts = (Object[]) countQuery.getSingleResult();
+            return new EmployeePageBundle(
+                    new PageImpl<>(List.of(), pageable, ((Number) counts[0]).longValue()),
+                    ((Number) counts[1]).longValue(), List.of(), List.of());
+        }
+
+        List<Long> ids = rows.stream()
+                .map(row -> ((Number) row[0]).longValue())
+                .collect(Collectors.toList());
+        Object[] first = rows.get(0);
+        long totalCount = ((Number) first[1]).longValue();
+        long activeTotal = ((Number) first[2]).longValue();
+
+        return new EmployeePageBundle(
+                new PageImpl<>(findListRowsByIdInOrder(ids), pageable, totalCount),
+                activeTotal, List.of(), List.of());
+    }
+
+    @Override
+    public List<Long> findFirstIds(Specification<Employee> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Employee> root = query.from(Employee.class);
+
+        query.select(root.get("id")).orderBy(QueryUtils.toOrders(sort, root, cb));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Page<Long> findIds(Specification<Employee> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Employee> root = query.from(Employee.class);
+
+        query.select(root.get("id")).orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        List<Long> ids = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        // COUNT не нужен, если страница неполная и итог очевиден
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<Employee> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Employee> root = query.from(Employee.class);
+
+        query.select(cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<EmployeeListRow> quickSearch(String text, int limit) {
+        String term = text.trim().toLowerCase();
+        String digits = term.replaceAll("[^0-9]", "");
+
+        // Условия повторяют выражения триграммных индексов (V3__employees_trigram_indexes.sql),
+        // поэтому PostgreSQL объединяет их через BitmapOr
+        StringBuilder match = new StringBuilder(
+                "LOWER(e.name) LIKE :pattern OR LOWER(e.email) LIKE :pattern");
+        StringBuilder rank = new StringBuilder(
+                "GREATEST(similarity(LOWER(e.name), :term), similarity(LOWER(e.email), :term)");
+        boolean byPhone = digits.length() >= MIN_PHONE_DIGITS;
+        if (byPhone) {
+            match.append(" OR REGEXP_REPLACE(e.phone_number, '[^0-9]', '', 'g') LIKE :phonePattern");
+            rank.append(", similarity(REGEXP_REPLACE(e.phone_number, '[^0-9]', '', 'g'), :digits)");
+        }
+        rank.append(")");
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT e.id FROM employees e WHERE e.deleted = false AND (" + match + ") " +
+                        "ORDER BY " + rank + " DESC, e.name, e.id LIMIT :limit");
+        query.setParameter("pattern", containsPattern(term));
+        query.setParameter("term", term);
+        if (byPhone) {
+            query.setParameter("phonePattern", containsPattern(digits));
+            query.setParameter("digits", digits);
+        }
+        query.setParameter("limit", limit);
+
+        List<Long> ids = ((List<Number>) query.getResultList()).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        return findListRowsByIdInOrder(ids);
+    }
+
+    // Символы % и _ из пользовательского ввода ищем буквально
+    private String containsPattern(String value) {
+        return "%" + value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<EmployeeListRow> findListRowsByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Object[]> rows = entityManager.createNativeQuery(LIST_ROW_SQL + "WHERE e.id IN (:ids) GROUP BY e.id")
+                .setParameter("ids", ids)
+                .getResultList();
+
+        Map<Long, EmployeeListRow> byId = rows.stream()
+                .map(EmployeeRepositoryImpl::toListRow)
+                .collect(Collectors.toMap(EmployeeListRow::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<EmployeeListRow> findListRow(Long id) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        LIST_ROW_SQL + "WHERE e.id = :id AND e.deleted = false GROUP BY e.id")
+                .setParameter("id", id)
+                .getResultList();
+        return rows.stream().findFirst().map(EmployeeRepositoryImpl::toListRow);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<EmployeeDetailView> findDetailView(Long id, int reviewPage, int reviewSize) {
+        List<String> rows = entityManager.createNativeQuery(DETAIL_VIEW_SQL)
+                .setParameter("id", id)
+                .setParameter("reviewPage", reviewPage)
+                .setParameter("reviewSize", reviewSize)
+                .setParameter("reviewOffset", (long) reviewPage * reviewSize)
+                .getResultList();
+        return rows.stream().findFirst().map(this::toDetailView);
+    }
+
+    private EmployeeDetailView toDetailView(String json) {
+        try {
+            return objectMapper.readValue(json, EmployeeDetailView.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Некорректный JSON карточки сотрудника: " + e.getMessage(), e);
+        }
+    }
+
+    static EmployeeListRow toListRow(Object[] row) {
+        return new EmployeeListRow(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                (String) row[2],
+                (String) row[3],
+                (String) row[4],
+                (String) row[5],
+                Boolean.TRUE.equals(row[6]),
+                (String) row[7],
+                toLocalDateTime(row[8]),
+                parseSkills((String) row[9]),
+                new RatingStats(
+                        ((Number) row[10]).intValue(),
+                        ((Number) row[11]).longValue(),
+                        ((Number) row[12]).intValue(),
+                        ((Number) row[13]).intValue(),
+                        ((Number) row[14]).intValue(),
+                        ((Number) row[15]).intValue(),
+                        ((Number) row[16]).intValue()));
+    }
+
+    // Навыки хранятся именами констант Skills (@Enumerated(EnumType.STRING))
+    static Set<Skills> parseSkills(String aggregated) {
+        Set<Skills> skills = EnumSet.noneOf(Skills.class);
+        if (aggregated == null || aggregated.isEmpty()) {
+            return skills;
+        }
+        for (String name : aggregated.split(",")) {
+            skills.add(Skills.valueOf(name));
+        }
+        return skills;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return (LocalDateTime) value;
+    }
+
+    @Override
+    public ResourceVersion findVersion(Specification<Employee> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Employee> root = query.from(Employee.class);
+
+        Expression<LocalDateTime> lastModified = cb.coalesce(root.get("updatedAt"), root.get("createdAt"));
+        query.multiselect(cb.greatest(lastModified), cb.count(root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        Object[] row = entityManager.createQuery(query).getSingleResult();
+        return new ResourceVersion((LocalDateTime) row[0], ((Number) row[1]).longValue());
+    }
+}
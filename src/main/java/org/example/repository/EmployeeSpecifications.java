@@ -0,0 +1,99 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.model.Skills;
+import org.example.model.dto.EmployeeCursor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Условия поиска сотрудников для {@link EmployeeRepository}.
+ * В запрос попадают только заданные фильтры: вместо "(:param IS NULL OR ...)"
+ * каждая комбинация фильтров дает свой SQL, и PostgreSQL может выбрать индекс.
+ * Значения фильтров всегда передаются параметрами: SQL зависит только от набора фильтров,
+ * поэтому на каждую комбинацию - один подготовленный запрос и один план в кэше.
+ */
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    public static Specification<Employee> withFilters(String name, Set<Skills> skills,
+                                                      List<String> departments, List<String> positions,
+                                                      Boolean active, boolean deleted) {
+        List<Specification<Employee>> parts = new ArrayList<>();
+        parts.add(deleted(deleted));
+        if (name != null && !name.isBlank()) {
+            parts.add(nameContains(name));
+        }
+        if (skills != null && !skills.isEmpty()) {
+            parts.add(hasAllSkills(skills));
+        }
+        if (departments != null && !departments.isEmpty()) {
+            parts.add(departmentIn(departments));
+        }
+        if (positions != null && !positions.isEmpty()) {
+            parts.add(positionIn(positions));
+        }
+        if (active != null) {
+            parts.add(active(active));
+        }
+        return Specification.allOf(parts);
+    }
+
+    public static Specification<Employee> deleted(boolean deleted) {
+        return (root, query, cb) -> cb.equal(root.get("deleted"), deleted);
+    }
+
+    public static Specification<Employee> active(boolean active) {
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    public static Specification<Employee> nameContains(String name) {
+        String pattern = "%" + name.toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    /**
+     * Все навыки сразу одним условием по skills_mask, без JOIN на employee_skills.
+     * Маска - параметр, а не литерал: иначе каждый набор навыков давал бы отдельный SQL.
+     */
+    public static Specification<Employee> hasAllSkills(Collection<Skills> skills) {
+        long mask = Skills.maskOf(skills);
+        return (root, query, cb) -> cb.equal(
+                cb.function("bitand", Long.class, root.get("skillsMask"),
+                        ((HibernateCriteriaBuilder) cb).value(mask)), mask);
+    }
+
+    public static Specification<Employee> departmentIn(List<String> departments) {
+        return (root, query, cb) -> root.get("department").in(departments);
+    }
+
+    public static Specification<Employee> positionIn(List<String> positions) {
+        return (root, query, cb) -> root.get("position").in(positions);
+    }
+
+    public static Specification<Employee> departmentEquals(String department) {
+        return (root, query, cb) -> cb.equal(root.get("department"), department);
+    }
+
+    public static Specification<Employee> positionEquals(String position) {
+        return (root, query, cb) -> cb.equal(root.get("position"), position);
+    }
+
+    /**
+     * Keyset-условие для сортировки (name, id): строки строго после курсора.
+     */
+    public static Specification<Employee> after(EmployeeCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("name"), cursor.name()),
+                cb.and(cb.equal(root.get("name"), cursor.name()),
+                        cb.greaterThan(root.get("id"), cursor.id())));
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Employee;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Справочники отделов и должностей неудаленных сотрудников в памяти.
+ * <p>
+ * Для каждого значения хранится число сотрудников с ним: значение появляется в справочнике
+ * с первым сотрудником и исчезает с последним. Для сотрудника запоминаются его текущие
+ * отдел и должность, поэтому при изменении достаточно новой версии сущности.
+ * Чтение - готовый отсортированный список без блокировок и запросов к БД.
+ */
+@Slf4j
+@Component
+public class EmployeeDictionary {
+
+    private record Entry(String department, String position) {
+    }
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Integer> departmentCounts = new HashMap<>();
+    private final Map<String, Integer> positionCounts = new HashMap<>();
+
+    private volatile List<String> departments = List.of();
+    private volatile List<String> positions = List.of();
+
+    // Изменения за время чтения снимка для перестройки (null - сотрудник исключен), применяются поверх снимка
+    private Map<Long, Entry> pendingChanges;
+    private int rebuildsInProgress;
+
+    public List<String> getDepartments() {
+        return departments;
+    }
+
+    public List<String> getPositions() {
+        return positions;
+    }
+
+    /**
+     * Полная перестройка. Строка - {id, department, position}.
+     */
+    public void rebuild(List<Object[]> rows) {
+        rebuild(() -> rows);
+    }
+
+    /**
+     * Полная перестройка по снимку из БД. Изменения, пришедшие после коммита, пока снимок читается,
+     * запоминаются и применяются поверх снимка - более старый снимок их не затирает.
+     */
+    public void rebuild(Supplier<List<Object[]>> snapshot) {
+        synchronized (this) {
+            if (rebuildsInProgress++ == 0) {
+                pendingChanges = new HashMap<>();
+            }
+        }
+        List<Object[]> rows = null;
+        try {
+            rows = snapshot.get();
+        } finally {
+            synchronized (this) {
+                if (rows != null) {
+                    replace(rows);
+                    log.info("Справочники построены: {} отделов, {} должностей", departments.size(), positions.size());
+                }
+                if (--rebuildsInProgress == 0) {
+                    pendingChanges = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Актуализация по сохраненному сотруднику; удаленные сотрудники в справочниках не учитываются.
+     */
+    public synchronized void update(Employee employee) {
+        if (employee.getId() == null) {
+            return;
+        }
+        if (employee.isDeleted()) {
+            remove(employee.getId());
+            return;
+        }
+        Entry entry = new Entry(employee.getDepartment(), employee.getPosition());
+        if (pendingChanges != null) {
+            pendingChanges.put(employee.getId(), entry);
+        }
+        Entry old = entries.put(employee.getId(), entry);
+        if (entry.equals(old)) {
+            return;
+        }
+        boolean changed = false;
+        if (old != null) {
+            changed |= decrement(departmentCounts, old.department());
+            changed |= decrement(positionCounts, old.position());
+        }
+        changed |= increment(departmentCounts, entry.department());
+        changed |= increment(positionCounts, entry.position());
+        if (changed) {
+            publish();
+        }
+    }
+
+    public synchronized void remove(Long employeeId) {
+        if (pendingChanges != null) {
+            pendingChanges.put(employeeId, null);
+        }
+        Entry old = entries.remove(employeeId);
+        if (old == null) {
+            return;
+        }
+        boolean changed = decrement(departmentCounts, old.department());
+        changed |= decrement(positionCounts, old.position());
+        if (changed) {
+            publish();
+        }
+    }
+
+    private void replace(List<Object[]> rows) {
+        entries.clear();
+        departmentCounts.clear();
+        positionCounts.clear();
+        for (Object[] row : rows) {
+            entries.put(((Number) row[0]).longValue(), new Entry((String) row[1], (String) row[2]));
+        }
+        pendingChanges.forEach((id, entry) -> {
+            if (entry != null) {
+                entries.put(id, entry);
+            } else {
+                entries.remove(id);
+            }
+        });
+        for (Entry entry : entries.values()) {
+            increment(departmentCounts, entry.department());
+            increment(positionCounts, entry.position());
+        }
+        publish();
+    }
+
+    private void publish() {
+        departments = sorted(departmentCounts);
+        positions = sorted(positionCounts);
+    }
+
+    // true, если значение появилось в справочнике
+    private static boolean increment(Map<String, Integer> counts, String value) {
+        return value != null && counts.merge(value, 1, Integer::sum) == 1;
+    }
+
+    // true, если значение исчезло из справочника
+    private static boolean decrement(Map<String, Integer> counts, String value) {
+        return value != null && counts.computeIfPresent(value, (key, count) -> count > 1 ? count - 1 : null) == null;
+    }
+
+    private static List<String> sorted(Map<String, Integer> counts) {
+        List<String> values = new ArrayList<>(counts.keySet());
+        Collections.sort(values);
+        return List.copyOf(values);
+    }
+}
@@ -0,0 +1,456 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Employee;
+import org.example.model.SkillResolver;
+import org.example.model.Skills;
+import org.example.model.dto.ImportJobStatus;
+import org.example.model.dto.ImportJobStatus.RowError;
+import org.example.model.dto.ImportJobStatus.State;
+import org.example.service.importer.ImportHeader;
+import org.example.service.importer.TabularReader;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый импорт сотрудников из XLSX или CSV.
+ * <p>
+ * Файл читается потоково (TabularReader), строки порциями проверяются параллельно теми же
+ * ограничениями, что и Employee, и по протоколу COPY загружаются во временную таблицу.
+ * Затем одной транзакцией: повторы email в файле схлопываются (остается последняя строка),
+ * сотрудники вставляются или обновляются по email (INSERT ... ON CONFLICT), навыки заменяются
+ * у тех, для кого колонка навыков заполнена. Пустые ячейки при обновлении не затирают значения.
+ * Удаленные сотрудники не обновляются - строки с их email попадают в skipped.
+ * <p>
+ * Задачи выполняются по одной в отдельном потоке; состояние доступно по id через {@link #getStatus}.
+ */
+@Slf4j
+@Service
+public class EmployeeImportService {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final int VALIDATION_WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    // Попыток обновить каждый кэш после закоммиченного импорта
+    private static final int REFRESH_ATTEMPTS = 2;
+
+    private static final String CREATE_STAGING =
+            "CREATE TEMP TABLE employee_import_staging (row_no BIGINT NOT NULL, name TEXT NOT NULL, " +
+                    "email TEXT NOT NULL, phone_number TEXT, telegram TEXT, position TEXT, department TEXT, " +
+                    "skills TEXT, skills_mask BIGINT) ON COMMIT DROP";
+    private static final String CREATE_RESULT =
+            "CREATE TEMP TABLE employee_import_result (id BIGINT NOT NULL, email TEXT NOT NULL, " +
+                    "inserted BOOLEAN NOT NULL) ON COMMIT DROP";
+    private static final String COPY_STAGING =
+            "COPY employee_import_staging (row_no, name, email, phone_number, telegram, position, department, " +
+                    "skills, skills_mask) FROM STDIN WITH (FORMAT csv)";
+    private static final String DELETE_DUPLICATES =
+            "DELETE FROM employee_import_staging s USING employee_import_staging d " +
+                    "WHERE s.email = d.email AND s.row_no < d.row_no RETURNING s.row_no, s.email";
+    // xmax = 0 - строка вставлена, иначе обновлена существующая.
+    // Каждая вставка берет nextval, то есть целый блок id (V8__pooled_id_sequences.sql) - для BIGINT это не ограничение
+    private static final String UPSERT =
+            "WITH upserted AS (" +
+                    "INSERT INTO employees (name, email, phone_number, telegram, position, department, skills_mask) " +
+                    "SELECT name, email, phone_number, telegram, position, department, COALESCE(skills_mask, 0) " +
+                    "FROM employee_import_staging " +
+                    "ON CONFLICT (email) DO UPDATE SET name = EXCLUDED.name, " +
+                    "phone_number = COALESCE(EXCLUDED.phone_number, employees.phone_number), " +
+                    "telegram = COALESCE(EXCLUDED.telegram, employees.telegram), " +
+                    "position = COALESCE(EXCLUDED.position, employees.position), " +
+                    "department = COALESCE(EXCLUDED.department, employees.department) " +
+                    "WHERE employees.deleted = false " +
+                    "RETURNING id, email, (xmax = 0) AS inserted) " +
+                    "INSERT INTO employee_import_result (id, email, inserted) SELECT id, email, inserted FROM upserted";
+    private static final String COUNT_RESULT =
+            "SELECT COUNT(*) FILTER (WHERE inserted), COUNT(*) FILTER (WHERE NOT inserted) FROM employee_import_result";
+    private static final String SELECT_DELETED =
+            "SELECT s.row_no, s.email FROM employee_import_staging s " +
+                    "WHERE NOT EXISTS (SELECT 1 FROM employee_import_result r WHERE r.email = s.email) ORDER BY s.row_no";
+    private static final String UPDATE_SKILLS_MASK =
+            "UPDATE employees e SET skills_mask = s.skills_mask " +
+                    "FROM employee_import_result r JOIN employee_import_staging s ON s.email = r.email " +
+                    "WHERE e.id = r.id AND NOT r.inserted AND s.skills IS NOT NULL";
+    private static final String DELETE_SKILLS =
+            "DELETE FROM employee_skills es " +
+                    "USING employee_import_result r JOIN employee_import_staging s ON s.email = r.email " +
+                    "WHERE es.employee_id = r.id AND NOT r.inserted AND s.skills IS NOT NULL";
+    private static final String INSERT_SKILLS =
+            "INSERT INTO employee_skills (employee_id, skill) " +
+                    "SELECT r.id, unnest(string_to_array(s.skills, ',')) " +
+                    "FROM employee_import_result r JOIN employee_import_staging s ON s.email = r.email " +
+                    "WHERE s.skills IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final EmployeeService employeeService;
+    private final FilterResultCache filterResultCache;
+    private final EntityCacheService entityCacheService;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, Job> jobs;
+
+    public EmployeeImportService(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 Validator validator,
+                                 EmployeeService employeeService,
+                                 FilterResultCache filterResultCache,
+                                 EntityCacheService entityCacheService,
+                                 @Value("${app.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${app.import.queue-capacity:4}") int queueCapacity,
+                                 @Value("${app.import.jobs-retention:P1D}") Duration jobsRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.employeeService = employeeService;
+        this.filterResultCache = filterResultCache;
+        this.entityCacheService = entityCacheService;
+        this.chunkSize = chunkSize;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "employee-import");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobsRetention)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Ставит файл в очередь импорта. Файл копируется во временный каталог: задача выполняется
+     * после окончания запроса.
+     *
+     * @throws IllegalArgumentException файл пуст или не .xlsx/.csv
+     * @throws IllegalStateException    очередь импорта заполнена
+     */
+    public ImportJobStatus start(MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Файл импорта пуст");
+        }
+        TabularReader reader = TabularReader.forFileName(file.getOriginalFilename());
+        Path copy = Files.createTempFile("employee-import-", null);
+        file.transferTo(copy);
+
+        Job job = new Job(UUID.randomUUID().toString(), file.getOriginalFilename());
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, reader, copy));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            Files.deleteIfExists(copy);
+            throw new IllegalStateException("Очередь импорта заполнена, повторите позже");
+        }
+        log.info("Импорт {} из файла '{}' поставлен в очередь", job.id, job.fileName);
+        return job.snapshot();
+    }
+
+    public Optional<ImportJobStatus> getStatus(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id)).map(Job::snapshot);
+    }
+
+    private void run(Job job, TabularReader reader, Path file) {
+        job.state = State.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        // Очередь ограничена: чтение файла не уходит далеко вперед проверки и COPY
+        ExecutorService workers = new ThreadPoolExecutor(VALIDATION_WORKERS, VALIDATION_WORKERS,
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(VALIDATION_WORKERS * 2),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                jdbcTemplate.execute(CREATE_STAGING);
+                jdbcTemplate.execute(CREATE_RESULT);
+                stage(job, reader, file, workers);
+                merge(job);
+            });
+        } catch (Exception e) {
+            log.error("Ошибка импорта {}: {}", job.id, e.getMessage(), e);
+            // Транзакция откатилась - в БД ничего не записано
+            job.inserted.set(0);
+            job.updated.set(0);
+            job.finish(State.FAILED, e.getMessage());
+            return;
+        } finally {
+            workers.shutdownNow();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Не удалось удалить файл импорта {}: {}", file, e.getMessage());
+            }
+        }
+
+        // Транзакция уже закоммичена: ошибка обновления кэшей не отменяет импорт и не обнуляет счетчики
+        String warning = job.inserted.get() + job.updated.get() > 0 ? refreshCaches() : null;
+        job.finish(State.COMPLETED, warning);
+        log.info("Импорт {} завершен: строк {}, добавлено {}, обновлено {}, ошибок {}, пропущено {}",
+                job.id, job.rowsRead.get(), job.inserted.get(), job.updated.get(),
+                job.failed.get(), job.skipped.get());
+    }
+
+    // === ЧТЕНИЕ, ПРОВЕРКА И COPY ===
+
+    private record RawRow(long number, List<String> cells) {
+    }
+
+    private record ValidatedChunk(String csv, List<RowError> errors) {
+    }
+
+    private void stage(Job job, TabularReader reader, Path file, ExecutorService workers) {
+        Deque<Future<ValidatedChunk>> pending = new ArrayDeque<>();
+        List<RawRow> chunk = new ArrayList<>(chunkSize);
+        ImportHeader[] header = new ImportHeader[1];
+        try {
+            reader.read(file, (rowNumber, cells) -> {
+                if (header[0] == null) {
+                    header[0] = ImportHeader.of(cells);
+                    return;
+                }
+                if (cells.stream().allMatch(String::isBlank)) {
+                    return;
+                }
+                chunk.add(new RawRow(rowNumber, cells));
+                job.rowsRead.incrementAndGet();
+                if (chunk.size() == chunkSize) {
+                    List<RawRow> rows = List.copyOf(chunk);
+                    chunk.clear();
+                    pending.add(workers.submit(() -> validate(header[0], rows)));
+                    // Порции загружаются в порядке файла, как только готовы
+                    while (!pending.isEmpty() && pending.peekFirst().isDone()) {
+                        copy(job, pending.pollFirst());
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (header[0] == null) {
+            throw new IllegalArgumentException("Файл импорта пуст");
+        }
+        if (!chunk.isEmpty()) {
+            pending.add(CompletableFuture.completedFuture(validate(header[0], chunk)));
+        }
+        while (!pending.isEmpty()) {
+            copy(job, pending.pollFirst());
+        }
+    }
+
+    private void copy(Job job, Future<ValidatedChunk> future) {
+        ValidatedChunk chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Импорт прерван", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка проверки строк: " + e.getCause().getMessage(), e.getCause());
+        }
+        chunk.errors().forEach(job::failed);
+        if (chunk.csv().isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyIn(COPY_STAGING, new StringReader(chunk.csv()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Строки порции в формате CSV для COPY; NULL - пустое поле без кавычек
+    private ValidatedChunk validate(ImportHeader header, List<RawRow> rows) {
+        StringBuilder csv = new StringBuilder();
+        List<RowError> errors = new ArrayList<>();
+        for (RawRow row : rows) {
+            String email = header.value(row.cells(), ImportHeader.Column.EMAIL);
+            try {
+                Employee employee = toEmployee(header, row.cells());
+                Set<Skills> skills = parseSkills(header.value(row.cells(), ImportHeader.Column.SKILLS));
+                csv.append(row.number()).append(',')
+                        .append(quote(employee.getName())).append(',')
+                        .append(quote(employee.getEmail())).append(',')
+                        .append(quote(employee.getPhoneNumber())).append(',')
+                        .append(quote(employee.getTelegram())).append(',')
+                        .append(quote(employee.getPosition())).append(',')
+                        .append(quote(employee.getDepartment())).append(',')
+                        .append(skills == null ? "" : quote(skills.stream().map(Skills::name)
+                                .collect(Collectors.joining(",")))).append(',')
+                        .append(skills == null ? "" : String.valueOf(Skills.maskOf(skills)))
+                        .append('\n');
+            } catch (IllegalArgumentException e) {
+                errors.add(new RowError(row.number(), email, e.getMessage()));
+            }
+        }
+        return new ValidatedChunk(csv.toString(), errors);
+    }
+
+    private Employee toEmployee(ImportHeader header, List<String> cells) {
+        Employee employee = Employee.builder()
+                .name(header.value(cells, ImportHeader.Column.NAME))
+                .email(header.value(cells, ImportHeader.Column.EMAIL))
+                .phoneNumber(header.value(cells, ImportHeader.Column.PHONE))
+                .telegram(header.value(cells, ImportHeader.Column.TELEGRAM))
+                .position(header.value(cells, ImportHeader.Column.POSITION))
+                .department(header.value(cells, ImportHeader.Column.DEPARTMENT))
+                .build();
+        Set<ConstraintViolation<Employee>> violations = validator.validate(employee);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return employee;
+    }
+
+    // null - колонки нет или ячейка пуста: у существующего сотрудника навыки не меняются
+    private static Set<Skills> parseSkills(String value) {
+        if (value == null) {
+            return null;
+        }
+        Set<Skills> skills = EnumSet.noneOf(Skills.class);
+        for (String name : value.split("[,;]")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            Skills skill = SkillResolver.getInstance().resolve(name.trim());
+            if (skill == null) {
+                throw new IllegalArgumentException("Неизвестный навык: " + name.trim());
+            }
+            skills.add(skill);
+        }
+        return skills;
+    }
+
+    private static String quote(String value) {
+        return value == null ? "" : '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // === ЗАПИСЬ В EMPLOYEES ===
+
+    private void merge(Job job) {
+        jdbcTemplate.query(DELETE_DUPLICATES, rs -> {
+            job.skipped(new RowError(rs.getLong(1), rs.getString(2),
+                    "Email повторяется ниже в файле, использована последняя строка"));
+        });
+        jdbcTemplate.update(UPSERT);
+        jdbcTemplate.query(COUNT_RESULT, rs -> {
+            job.inserted.set(rs.getLong(1));
+            job.updated.set(rs.getLong(2));
+        });
+        jdbcTemplate.query(SELECT_DELETED, rs -> {
+            job.skipped(new RowError(rs.getLong(1), rs.getString(2), "Сотрудник с таким email удален"));
+        });
+        jdbcTemplate.update(UPDATE_SKILLS_MASK);
+        jdbcTemplate.update(DELETE_SKILLS);
+        jdbcTemplate.update(INSERT_SKILLS);
+    }
+
+    // Запись шла мимо Hibernate: кэши и индексы в памяти перестраиваются целиком
+    // Каждый кэш обновляется независимо от остальных и с повтором; возвращает предупреждение или null
+    private String refreshCaches() {
+        List<String> failed = new ArrayList<>();
+        refresh("кэш сотрудников", entityCacheService::evictAllEmployees, failed);
+        refresh("кэш фильтров", filterResultCache::invalidate, failed);
+        refresh("индекс навыков", employeeService::rebuildSkillIndex, failed);
+        refresh("справочники", employeeService::rebuildDictionaries, failed);
+        return failed.isEmpty() ? null
+                : "Данные импортированы, но не обновлены: " + String.join(", ", failed);
+    }
+
+    private void refresh(String name, Runnable step, List<String> failed) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                step.run();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == REFRESH_ATTEMPTS) {
+                    log.error("Не удалось обновить {} после импорта: {}", name, e.getMessage(), e);
+                    failed.add(name);
+                    return;
+                }
+                log.warn("Ошибка обновления {} после импорта, повтор: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    // === СОСТОЯНИЕ ЗАДАЧИ ===
+
+    private static final class Job {
+        private final String id;
+        private final String fileName;
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final List<RowError> errors = new ArrayList<>();
+        private volatile State state = State.QUEUED;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private Job(String id, String fileName) {
+            this.id = id;
+            this.fileName = fileName;
+        }
+
+        private void failed(RowError rowError) {
+            failed.incrementAndGet();
+            report(rowError);
+        }
+
+        private void skipped(RowError rowError) {
+            skipped.incrementAndGet();
+            report(rowError);
+        }
+
+        private synchronized void report(RowError rowError) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(rowError);
+            }
+        }
+
+        private void finish(State finalState, String message) {
+            error = message;
+            finishedAt = LocalDateTime.now();
+            state = finalState;
+        }
+
+        private synchronized ImportJobStatus snapshot() {
+            return new ImportJobStatus(id, fileName, state, rowsRead.get(), inserted.get(), updated.get(),
+                    failed.get(), skipped.get(), List.copyOf(errors), startedAt, finishedAt, error);
+        }
+    }
+}
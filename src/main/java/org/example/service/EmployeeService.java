@@ -5,11 +5,23 @@ import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.model.*;
+import org.example.model.dto.CursorPage;
+import org.example.model.dto.EmployeeCursor;
+import org.example.model.dto.EmployeeDetailView;
+import org.example.model.dto.EmployeeListRow;
+import org.example.model.dto.EmployeePageBundle;
 import org.example.model.dto.ProfileUpdateRequest;
+import org.example.model.dto.ResourceVersion;
 import org.example.repository.*;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +36,10 @@ public class EmployeeService {
     private final EmployeeRepository employeeRepository;
     private final EducationRepository educationRepository;
     private final ReviewRepository reviewRepository;
+    private final SkillIndex skillIndex;
+    private final FilterResultCache filterResultCache;
+    private final EmployeeDictionary employeeDictionary;
+    private final EntityCacheService entityCacheService;
 
     // === ОСНОВНЫЕ ОПЕРАЦИИ СОХРАНЕНИЯ ===
 
@@ -49,6 +65,10 @@ public class EmployeeService {
         employee.setDeletedBy(null);
 
         Employee saved = employeeRepository.save(employee);
+        TransactionCallbacks.afterCommit(() -> skillIndex.update(saved));
+        TransactionCallbacks.afterCommit(() -> employeeDictionary.update(saved));
+        TransactionCallbacks.afterCommit(filterResultCache::invalidate);
+        saved.setSuggestedSkills(suggestSkills(saved));
         log.debug("Создан сотрудник ID: {}", saved.getId());
         return saved;
     }
@@ -66,6 +86,9 @@ public class EmployeeService {
         }
 
         Employee saved = employeeRepository.save(employee);
+        TransactionCallbacks.afterCommit(() -> skillIndex.update(saved));
+        TransactionCallbacks.afterCommit(() -> employeeDictionary.update(saved));
+        TransactionCallbacks.afterCommit(filterResultCache::invalidate);
         log.debug("Обновлен сотрудник ID: {}", saved.getId());
         return saved;
     }
@@ -74,7 +97,8 @@ public class EmployeeService {
     public Employee updateWithPhoto(Long id, @NotNull @Valid Employee employeeDetails, String photoPath) {
         log.info("Обновление сотрудника ID: {} с фото", id);
 
-        Employee employee = employeeRepository.findById(id)
+        // Возвращаемый сотрудник отдается в JSON целиком, поэтому загружается по плану карточки
+        Employee employee = employeeRepository.findDetailById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Сотрудник не найден"));
 
         // Обновляем поля
@@ -99,7 +123,19 @@ public class EmployeeService {
             employee.setPhotoPath(photoPath);
         }
 
+        // Образование - если форма его передала: пустой список не стирает записи клиентов, которые его не шлют.
+        // Изменение только образования не меняет колонки employees, и @PreUpdate не сработает, а updated_at -
+        // версия карточки (ETag /{id} и /{id}/detail): сдвигаем явно, как в addEducations
+        List<Education> educations = employeeDetails.getEducations();
+        if (educations != null && !educations.isEmpty() && mergeEducations(employee, educations)) {
+            employee.setUpdatedAt(LocalDateTime.now());
+        }
+
         Employee saved = employeeRepository.save(employee);
+        TransactionCallbacks.afterCommit(() -> skillIndex.update(saved));
+        TransactionCallbacks.afterCommit(() -> employeeDictionary.update(saved));
+        TransactionCallbacks.afterCommit(filterResultCache::invalidate);
+        saved.setSuggestedSkills(suggestSkills(saved));
         log.debug("Обновлен сотрудник ID: {} с фото", saved.getId());
         return saved;
     }
@@ -119,6 +155,9 @@ public class EmployeeService {
 
         employee.softDelete(deletedBy);
         Employee saved = employeeRepository.save(employee);
+        TransactionCallbacks.afterCommit(() -> skillIndex.remove(id));
+        TransactionCallbacks.afterCommit(() -> employeeDictionary.remove(id));
+        TransactionCallbacks.afterCommit(filterResultCache::invalidate);
         log.debug("Сотрудник ID: {} перемещен в архив", id);
         return saved;
     }
@@ -139,6 +178,9 @@ public class EmployeeService {
         employee.setDeletedBy(null);
 
         Employee saved = employeeRepository.save(employee);
+        TransactionCallbacks.afterCommit(() -> skillIndex.update(saved));
+        TransactionCallbacks.afterCommit(() -> employeeDictionary.update(saved));
+        TransactionCallbacks.afterCommit(filterResultCache::invalidate);
         log.debug("Сотрудник ID: {} восстановлен из архива", id);
         return saved;
     }
@@ -199,7 +241,9 @@ public class EmployeeService {
             employee.setPosition(request.getPosition());
         }
 
-        employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        TransactionCallbacks.afterCommit(() -> employeeDictionary.update(saved));
+        TransactionCallbacks.afterCommit(filterResultCache::invalidate);
     }
 
     @Transactional
@@ -227,28 +271,15 @@ public class EmployeeService {
             throw new IllegalArgumentException("Offset должен быть >= 0, limit > 0");
         }
 
-        // Обработка skill с безопасной обработкой ошибок
-        String skillEnumName = null;
-        if (skill != null && !skill.isBlank()) {
-            try {
-                Skills skillEnum = Skills.fromString(skill);
-                if (skillEnum != null) {
-                    skillEnumName = skillEnum.name();
-                } else {
-                    log.warn("Неизвестный навык: '{}'. Фильтрация по этому навыку будет пропущена.", skill);
-                    return List.of();
-                }
-            } catch (Exception e) {
-                log.warn("Ошибка при обработке навыка '{}': {}. Фильтрация по навыку пропущена.",
-                        skill, e.getMessage());
-                return List.of();
-            }
+        Set<Skills> skills = resolveSkills(skill);
+        if (skills == null) {
+            return List.of();
         }
 
         Pageable pageable = PageRequest.of(offset / limit, limit);
-        Page<Employee> page = employeeRepository.findWithFilters(
-                name, skillEnumName,
-                departments, positions, active, false, pageable
+        Page<Employee> page = employeeRepository.findAll(
+                EmployeeSpecifications.withFilters(name, skills, departments, positions, active, false),
+                pageable
         );
 
         return page.getContent();
@@ -262,45 +293,118 @@ public class EmployeeService {
         log.debug("Фильтры с Pageable: name={}, category={}, skill={}, departments={}, positions={}, active={}",
                 name, category, skill, departments, positions, active);
 
-        // Обработка skill с безопасной обработкой ошибок
-        String skillEnumName = null;
-        if (skill != null && !skill.isBlank()) {
-            try {
-                Skills skillEnum = Skills.fromString(skill);
-                if (skillEnum != null) {
-                    skillEnumName = skillEnum.name();
-                } else {
-                    log.warn("Неизвестный навык: '{}'. Фильтрация по этому навыку будет пропущена.", skill);
-                    return Page.empty();
-                }
-            } catch (Exception e) {
-                log.warn("Ошибка при обработке навыка '{}': {}. Фильтрация по навыку пропущена.",
-                        skill, e.getMessage());
-                return Page.empty();
-            }
+        Set<Skills> skills = resolveSkills(skill);
+        if (skills == null) {
+            return Page.empty();
         }
 
-        return employeeRepository.findWithFilters(
-                name, skillEnumName, departments, positions, active, false, pageable
+        return employeeRepository.findAll(
+                EmployeeSpecifications.withFilters(name, skills, departments, positions, active, false),
+                pageable
         );
     }
 
+    // Страница списка для контроллера: строки, итоги и справочники одним запросом к БД
+    @Transactional(readOnly = true)
+    public EmployeePageBundle findListPage(String name, String category, String skill,
+                                           List<String> departments, List<String> positions,
+                                           Boolean active, Pageable pageable) {
+        log.debug("Страница списка: name={}, category={}, skill={}, departments={}, positions={}, active={}",
+                name, category, skill, departments, positions, active);
+
+        Set<Skills> skills = resolveSkills(skill);
+        if (skills == null) {
+            return new EmployeePageBundle(Page.empty(pageable), 0,
+                    findAllDistinctDepartments(), findAllDistinctPositions());
+        }
+
+        long skillsMask = Skills.maskOf(skills);
+        FilterResultCache.Key key = FilterResultCache.Key.of("list", name, skillsMask,
+                departments, positions, active, pageable);
+        long version = filterResultCache.version();
+        FilterResultCache.Entry cached = filterResultCache.get(key, version);
+        if (cached != null) {
+            return new EmployeePageBundle(
+                    new PageImpl<>(employeeRepository.findListRowsByIdInOrder(cached.ids()), pageable, cached.total()),
+                    cached.activeTotal(), findAllDistinctDepartments(), findAllDistinctPositions());
+        }
+
+        EmployeePageBundle bundle = employeeRepository.findPageBundle(name, skillsMask,
+                departments, positions, active, pageable);
+        filterResultCache.put(key, version, FilterResultCache.Entry.of(bundle));
+        return new EmployeePageBundle(bundle.page(), bundle.activeTotal(),
+                findAllDistinctDepartments(), findAllDistinctPositions());
+    }
+
+    // === KEYSET ПАГИНАЦИЯ ===
+
+    @Transactional(readOnly = true)
+    public CursorPage<EmployeeListRow> findWithFiltersAfter(String name, String category, String skill,
+                                                     List<String> departments, List<String> positions,
+                                                     Boolean active, String cursor, int limit) {
+        log.debug("Фильтры (keyset): name={}, category={}, skill={}, departments={}, positions={}, active={}",
+                name, category, skill, departments, positions, active);
+
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit должен быть > 0");
+        }
+        EmployeeCursor after = EmployeeCursor.decode(cursor);
+
+        Set<Skills> skills = resolveSkills(skill);
+        if (skills == null) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        Specification<Employee> spec = EmployeeSpecifications
+                .withFilters(name, skills, departments, positions, active, false)
+                .and(EmployeeSpecifications.after(after));
+        List<Long> ids = employeeRepository.findFirstIds(spec, Sort.by("name", "id"), limit + 1);
+        return toCursorPage(employeeRepository.findListRowsByIdInOrder(ids), limit);
+    }
+
+    // Запрашиваем limit + 1 строку: лишняя строка означает, что есть следующая страница
+    private CursorPage<EmployeeListRow> toCursorPage(List<EmployeeListRow> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<EmployeeListRow> content = List.copyOf(rows.subList(0, limit));
+        EmployeeListRow last = content.get(limit - 1);
+        return new CursorPage<>(content, new EmployeeCursor(last.getName(), last.getId()).encode());
+    }
+
     @Transactional(readOnly = true)
     public long countWithFilters(String name, String category, String skill,
                                  List<String> departments, List<String> positions, Boolean active) {
-        // Обработка skill для count метода
-        String skillEnumName = null;
-        if (skill != null && !skill.isBlank()) {
-            Skills skillEnum = Skills.fromString(skill);
-            if (skillEnum != null) {
-                skillEnumName = skillEnum.name();
-            } else {
-                return 0;
-            }
+        Set<Skills> skills = resolveSkills(skill);
+        if (skills == null) {
+            return 0;
         }
 
-        return employeeRepository.countWithFilters(name, skillEnumName,
-                departments, positions, active, false);
+        return employeeRepository.count(
+                EmployeeSpecifications.withFilters(name, skills, departments, positions, active, false));
+    }
+
+    /**
+     * Навыки фильтра: один навык или несколько через запятую (нужны все сразу).
+     * Пустой фильтр - пустое множество, неизвестный навык - null (результат заведомо пуст).
+     */
+    private Set<Skills> resolveSkills(String skill) {
+        Set<Skills> skills = EnumSet.noneOf(Skills.class);
+        if (skill == null || skill.isBlank()) {
+            return skills;
+        }
+        for (String part : skill.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            Skills skillEnum = Skills.fromString(part.trim());
+            if (skillEnum == null) {
+                log.warn("Неизвестный навык: '{}'. Фильтрация по этому навыку будет пропущена.", part);
+                return null;
+            }
+            skills.add(skillEnum);
+        }
+        return skills;
     }
 
     @Transactional(readOnly = true)
@@ -324,8 +428,9 @@ public class EmployeeService {
                 name, departments, positions);
 
         Pageable pageable = PageRequest.of(0, 100);
-        Page<Employee> page = employeeRepository.findDeletedWithFilters(
-                name, departments, positions, pageable
+        Page<Employee> page = employeeRepository.findAll(
+                EmployeeSpecifications.withFilters(name, null, departments, positions, null, true),
+                pageable
         );
         return page.getContent();
     }
@@ -343,30 +448,138 @@ public class EmployeeService {
 
     @Transactional(readOnly = true)
     public List<String> findAllDistinctDepartments() {
-        return employeeRepository.findDistinctDepartments();
+        return employeeDictionary.getDepartments();
     }
 
     @Transactional(readOnly = true)
     public List<String> findAllDistinctPositions() {
-        return employeeRepository.findDistinctPositions();
+        return employeeDictionary.getPositions();
     }
 
     // === ОСНОВНЫЕ МЕТОДЫ ПОИСКА ===
 
     @Transactional(readOnly = true)
-    public Page<Employee> findAllWithFilters(String name, String position, String department, Pageable pageable) {
-        return employeeRepository.findByNameContainingAndPositionAndDepartment(
-                name != null ? name : "",
-                position != null ? position : "",
-                department != null ? department : "",
-                pageable
-        );
+    public Page<EmployeeListRow> findAllWithFilters(String name, String position, String department,
+                                                    String skills, Pageable pageable) {
+        Set<Skills> requiredSkills = resolveSkills(skills);
+        if (requiredSkills == null) {
+            return Page.empty(pageable);
+        }
+
+        Specification<Employee> filter = apiFilter(name, position, department, requiredSkills);
+
+        FilterResultCache.Key key = FilterResultCache.Key.of("api", name, Skills.maskOf(requiredSkills),
+                department != null ? List.of(department) : null,
+                position != null ? List.of(position) : null, null, pageable);
+        long version = filterResultCache.version();
+        FilterResultCache.Entry cached = filterResultCache.get(key, version);
+        if (cached != null) {
+            return new PageImpl<>(employeeRepository.findListRowsByIdInOrder(cached.ids()), pageable, cached.total());
+        }
+
+        // Сначала только id страницы, затем узкие строки по ним - сущности не загружаются
+        Page<Long> ids = employeeRepository.findIds(filter, pageable);
+        Page<EmployeeListRow> page = new PageImpl<>(
+                employeeRepository.findListRowsByIdInOrder(ids.getContent()), pageable, ids.getTotalElements());
+        filterResultCache.put(key, version, FilterResultCache.Entry.of(page));
+        return page;
+    }
+
+    /**
+     * Версия выборки findAllWithFilters (без учета страницы) для ETag списка.
+     * Признак удаления не фильтруется, поэтому версия покрывает и keyset-режим списка.
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion findListVersion(String name, String position, String department, String skills) {
+        Set<Skills> requiredSkills = resolveSkills(skills);
+        if (requiredSkills == null) {
+            return ResourceVersion.EMPTY;
+        }
+        return employeeRepository.findVersion(apiFilter(name, position, department, requiredSkills));
+    }
+
+    private static Specification<Employee> apiFilter(String name, String position, String department,
+                                                     Set<Skills> requiredSkills) {
+        List<Specification<Employee>> parts = new ArrayList<>();
+        if (name != null && !name.isEmpty()) {
+            parts.add(EmployeeSpecifications.nameContains(name));
+        }
+        if (position != null && !position.isEmpty()) {
+            parts.add(EmployeeSpecifications.positionEquals(position));
+        }
+        if (department != null && !department.isEmpty()) {
+            parts.add(EmployeeSpecifications.departmentEquals(department));
+        }
+        if (!requiredSkills.isEmpty()) {
+            parts.add(EmployeeSpecifications.hasAllSkills(requiredSkills));
+        }
+        return Specification.allOf(parts);
     }
 
     @Transactional(readOnly = true)
     public Optional<Employee> findById(Long id) {
         if (id == null) throw new IllegalArgumentException("ID не может быть null");
-        return employeeRepository.findByIdAndDeletedFalse(id);
+        // Поиск по первичному ключу обслуживается кэшем второго уровня, признак удаления проверяем здесь
+        return employeeRepository.findById(id).filter(employee -> !employee.isDeleted());
+    }
+
+    // === ПЛАНЫ ЗАГРУЗКИ ===
+    // open-in-view выключен: все, что нужно представлению, загружается здесь, до конца транзакции.
+    // Строка списка - findAllWithFilters/findListPage (id + EmployeeListRow), быстрый просмотр - findListRow,
+    // страницы профиля и отзывов - findDetailView (один запрос), форма редактирования и ответ REST
+    // с сущностью - findDetail, выгрузка в файл - EmployeeServiceJPA (EmployeeDto).
+
+    private static final int MAX_REVIEW_PAGE_SIZE = 100;
+
+    /**
+     * Карточка сотрудника со страницей отзывов одним запросом; reviewSize = 0 - без отзывов.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EmployeeDetailView> findDetailView(Long id, int reviewPage, int reviewSize) {
+        if (id == null) throw new IllegalArgumentException("ID не может быть null");
+        if (reviewPage < 0 || reviewSize < 0) {
+            throw new IllegalArgumentException("Номер и размер страницы отзывов должны быть >= 0");
+        }
+        return employeeRepository.findDetailView(id, reviewPage, Math.min(reviewSize, MAX_REVIEW_PAGE_SIZE));
+    }
+
+    // Сотрудники с навыками и образованием в порядке ids (отсутствующие пропускаются), одним запросом
+    @Transactional(readOnly = true)
+    public List<Employee> findDetailsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Employee> byId = employeeRepository.findDetailByIdIn(ids).stream()
+                .collect(Collectors.toMap(Employee::getId, employee -> employee, (first, second) -> first));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Сотрудник для карточки, формы редактирования и REST: навыки и образование одним запросом.
+     * Отзывы не загружаются - они читаются отдельно (findReviewsByEmployeeId).
+     */
+    @Transactional(readOnly = true)
+    public Optional<Employee> findDetail(Long id) {
+        if (id == null) throw new IllegalArgumentException("ID не может быть null");
+        return employeeRepository.findDetailById(id).filter(employee -> !employee.isDeleted());
+    }
+
+    /**
+     * Данные быстрого просмотра одним узким запросом, без загрузки сущности.
+     */
+    @Transactional(readOnly = true)
+    public Optional<EmployeeListRow> findListRow(Long id) {
+        if (id == null) throw new IllegalArgumentException("ID не может быть null");
+        return employeeRepository.findListRow(id);
+    }
+
+    /**
+     * Версия сотрудника по updated_at без загрузки сущности; пусто, если сотрудника нет.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> findVersion(Long id) {
+        if (id == null) throw new IllegalArgumentException("ID не может быть null");
+        return employeeRepository.findLastModifiedById(id).map(ResourceVersion::of);
     }
 
     @Transactional(readOnly = true)
@@ -375,16 +588,31 @@ public class EmployeeService {
             throw new IllegalArgumentException("Offset должен быть >= 0, limit > 0");
         }
         Pageable pageable = PageRequest.of(offset / limit, limit);
+        if (name == null || name.isBlank()) {
+            return employeeRepository.findAllActiveByNamePaginated(pageable);
+        }
         return employeeRepository.findActiveByNameContainingPaginated(name, pageable);
     }
 
-    // НОВЫЙ МЕТОД ДЛЯ КОНТРОЛЛЕРА
     @Transactional(readOnly = true)
-    public Page<Employee> findByNameContainingPage(String name, Pageable pageable) {
-        if (name == null || name.isBlank()) {
-            return employeeRepository.findByDeletedFalse(pageable);
+    public List<EmployeeListRow> quickSearch(String text, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit должен быть > 0");
         }
-        return employeeRepository.findByNameContainingAndDeletedFalse(name, pageable);
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return employeeRepository.quickSearch(text, limit);
+    }
+
+    // НОВЫЙ МЕТОД ДЛЯ КОНТРОЛЛЕРА
+    @Transactional(readOnly = true)
+    public Page<EmployeeListRow> findByNameContainingPage(String name, Pageable pageable) {
+        Page<Long> ids = name == null || name.isBlank()
+                ? employeeRepository.findActiveIds(pageable)
+                : employeeRepository.findActiveIdsByNameContaining(name, pageable);
+        return new PageImpl<>(employeeRepository.findListRowsByIdInOrder(ids.getContent()),
+                pageable, ids.getTotalElements());
     }
 
     // НОВЫЙ МЕТОД ДЛЯ КОНТРОЛЛЕРА
@@ -426,24 +654,21 @@ public class EmployeeService {
                 throw new IllegalArgumentException("Неизвестный навык: " + skillName);
             }
 
-            // Инициализация коллекции
-            if (employee.getSkills() == null) {
-                employee.setSkills(new HashSet<>());
-                log.info("Инициализирована пустая коллекция навыков");
-            }
-
             // Проверка дублирования
-            if (employee.getSkills().contains(skill)) {
+            if (employee.getSkills() != null && employee.getSkills().contains(skill)) {
                 log.info("Навык '{}' уже есть у сотрудника. Пропускаем добавление.", skill.getDisplayName());
                 return;
             }
 
             // Добавление навыка
             log.info("Добавляем навык: {} ({})", skill.name(), skill.getDisplayName());
-            employee.getSkills().add(skill);
+            employee.addSkill(skill);
 
             // Сохранение
             Employee saved = employeeRepository.save(employee);
+            TransactionCallbacks.afterCommit(() -> skillIndex.update(saved));
+            TransactionCallbacks.afterCommit(() -> employeeDictionary.update(saved));
+            TransactionCallbacks.afterCommit(filterResultCache::invalidate);
             log.info("Сотрудник сохранен. ID: {}", saved.getId());
 
             // Проверка результата
@@ -477,7 +702,10 @@ public class EmployeeService {
         }
 
         employee.removeSkill(skill);
-        employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        TransactionCallbacks.afterCommit(() -> skillIndex.update(saved));
+        TransactionCallbacks.afterCommit(() -> employeeDictionary.update(saved));
+        TransactionCallbacks.afterCommit(filterResultCache::invalidate);
         log.debug("Удален навык '{}' у сотрудника ID: {}", skillName, employeeId);
     }
 
@@ -498,15 +726,143 @@ public class EmployeeService {
         return employee.getSkills();
     }
 
+    // Навыки из резюме и "о себе", которых еще нет у сотрудника
+    private Set<Skills> suggestSkills(Employee employee) {
+        Set<Skills> suggested = SkillExtractor.getInstance().extract(employee.getResume(), employee.getAbout());
+        if (employee.getSkills() != null) {
+            suggested.removeAll(employee.getSkills());
+        }
+        return suggested;
+    }
+
+    // === ИНДЕКС НАВЫКОВ ===
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildSkillIndex() {
+        // Снимок читается внутри rebuild: изменения после коммита, пришедшие во время чтения, не затираются
+        skillIndex.rebuild(() -> {
+            Map<Long, Long> masks = new HashMap<>();
+            for (Object[] row : employeeRepository.findActiveSkillMasks()) {
+                masks.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+            }
+            return masks;
+        });
+    }
+
+    // Справочники меняются инкрементально после коммита; полная перестройка - страховка от пропущенных изменений
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.dictionaries.rebuild-cron:0 0 * * * *}")
+    @Transactional(readOnly = true)
+    public void rebuildDictionaries() {
+        // Снимок читается внутри rebuild: изменения после коммита, пришедшие во время чтения, не затираются
+        employeeDictionary.rebuild(employeeRepository::findActiveDepartmentsAndPositions);
+    }
+
+    // Сотрудники, у которых есть все (matchAll) или хотя бы один из навыков; порядок - по ID
+    @Transactional(readOnly = true)
+    public List<EmployeeListRow> findBySkills(List<String> skillNames, boolean matchAll, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit должен быть > 0");
+        }
+        // id из индекса уже упорядочены по возрастанию
+        List<Long> ids = skillIndex.find(parseSkills(skillNames), matchAll, limit);
+        return employeeRepository.findListRowsByIdInOrder(ids);
+    }
+
+    // Количество сотрудников по каждому навыку среди подходящих под фильтр навыков
+    @Transactional(readOnly = true)
+    public Map<Skills, Integer> countBySkill(List<String> skillNames, boolean matchAll) {
+        return skillIndex.countBySkill(parseSkills(skillNames), matchAll);
+    }
+
+    private static List<Skills> parseSkills(List<String> skillNames) {
+        List<Skills> skills = new ArrayList<>();
+        if (skillNames != null) {
+            for (String skillName : skillNames) {
+                if (skillName == null || skillName.isBlank()) {
+                    continue;
+                }
+                Skills skill = Skills.fromString(skillName.trim());
+                if (skill == null) {
+                    throw new IllegalArgumentException("Неизвестный навык: " + skillName);
+                }
+                skills.add(skill);
+            }
+        }
+        // Пустой список: для "все из" подходят все сотрудники, для "любой из" - никто (SkillIndex)
+        return skills;
+    }
+
     // === ОБРАЗОВАНИЕ (Educations) ===
 
     @Transactional
     public void addEducation(Long employeeId, Education education) {
-        Employee employee = employeeRepository.findById(employeeId)
+        addEducations(employeeId, List.of(education));
+    }
+
+    /**
+     * Несколько записей об образовании в одной транзакции: вставки уходят пачкой при flush.
+     */
+    @Transactional
+    public void addEducations(Long employeeId, List<Education> educations) {
+        if (educations == null || educations.isEmpty()) {
+            throw new IllegalArgumentException("Список образований не может быть пустым");
+        }
+        Employee employee = employeeRepository.findByIdAndDeletedFalse(employeeId)
                 .orElseThrow(() -> new IllegalArgumentException("Сотрудник не найден"));
-        education.setEmployee(employee);
-        educationRepository.save(education);
-        log.debug("Добавлено образование сотруднику ID: {}", employeeId);
+        for (Education education : educations) {
+            Objects.requireNonNull(education, "Образование не может быть null");
+            education.setEmployee(employee);
+        }
+        educationRepository.saveAll(educations);
+        // Образование входит в карточку (findDetailView), а ее версия - updated_at сотрудника:
+        // строка employees обновляется вместе со вставкой, и ETag карточки меняется
+        employee.setUpdatedAt(LocalDateTime.now());
+        log.debug("Добавлено образований сотруднику ID {}: {}", employeeId, educations.size());
+    }
+
+    // Сверка образования с формой по id: известные записи обновляются, новые добавляются,
+    // отсутствующие в форме удаляются (orphanRemoval). true - если что-то изменилось
+    static boolean mergeEducations(Employee employee, List<Education> submitted) {
+        Map<Long, Education> current = new HashMap<>();
+        for (Education education : employee.getEducations()) {
+            current.put(education.getId(), education);
+        }
+        boolean changed = false;
+        Set<Long> kept = new HashSet<>();
+        for (Education item : submitted) {
+            Education existing = item.getId() != null ? current.get(item.getId()) : null;
+            if (existing == null) {
+                // Чужой или новый id не переносится: запись создается заново
+                employee.addEducation(Education.builder()
+                        .university(item.getUniversity())
+                        .degree(item.getDegree())
+                        .yearStart(item.getYearStart())
+                        .yearEnd(item.getYearEnd())
+                        .build());
+                changed = true;
+                continue;
+            }
+            kept.add(existing.getId());
+            if (!Objects.equals(existing.getUniversity(), item.getUniversity())
+                    || !Objects.equals(existing.getDegree(), item.getDegree())
+                    || !Objects.equals(existing.getYearStart(), item.getYearStart())
+                    || !Objects.equals(existing.getYearEnd(), item.getYearEnd())) {
+                existing.setUniversity(item.getUniversity());
+                existing.setDegree(item.getDegree());
+                existing.setYearStart(item.getYearStart());
+                existing.setYearEnd(item.getYearEnd());
+                changed = true;
+            }
+        }
+        for (Education existing : List.copyOf(employee.getEducations())) {
+            if (existing.getId() != null && !kept.contains(existing.getId())) {
+                employee.removeEducation(existing);
+                changed = true;
+            }
+        }
+        return changed;
     }
 
     @Transactional(readOnly = true)
@@ -525,8 +881,18 @@ public class EmployeeService {
         Employee employee = employeeRepository.findById(review.getEmployee().getId())
                 .orElseThrow(() -> new IllegalArgumentException("Сотрудник не найден"));
 
+        Integer rating = review.getRating();
+        if (rating == null || rating < 1 || rating > RatingStats.MAX_RATING) {
+            throw new IllegalArgumentException("Рейтинг должен быть от 1 до " + RatingStats.MAX_RATING);
+        }
+
         review.setEmployee(employee);
         Review saved = reviewRepository.save(review);
+        // Агрегаты на employees обновляются в той же транзакции, что и отзыв
+        employeeRepository.addRating(employee.getId(), rating);
+        // UPDATE идет мимо сессии: из кэша второго уровня убирается только этот сотрудник
+        Long employeeId = employee.getId();
+        TransactionCallbacks.afterCommit(() -> entityCacheService.evictEmployee(employeeId));
         log.debug("Сохранен отзыв для сотрудника ID: {}", employee.getId());
         return saved;
     }
@@ -538,8 +904,15 @@ public class EmployeeService {
 
     @Transactional(readOnly = true)
     public double calculateAverageRating(Long employeeId) {
-        Double avgRating = reviewRepository.calculateAverageRating(employeeId);
-        return avgRating != null ? avgRating : 0.0;
+        return getRatingStats(employeeId).getAverage();
+    }
+
+    /**
+     * Количество отзывов, средняя оценка и гистограмма из колонок employees, без агрегации по reviews.
+     */
+    @Transactional(readOnly = true)
+    public RatingStats getRatingStats(Long employeeId) {
+        return employeeRepository.findRatingStatsById(employeeId).orElseGet(RatingStats::empty);
     }
 
     // === ДОПОЛНИТЕЛЬНЫЕ МЕТОДЫ ===
@@ -554,6 +927,12 @@ public class EmployeeService {
         return employeeRepository.existsByIdAndDeletedFalse(id);
     }
 
+    // Сотрудник есть, но удален (мягко) - для сообщения вместо "не найден"
+    @Transactional(readOnly = true)
+    public boolean isDeleted(Long id) {
+        return employeeRepository.existsByIdAndDeletedTrue(id);
+    }
+
     @Transactional(readOnly = true)
     public long countByNameContaining(String name) {
         if (name == null || name.isBlank()) {
@@ -576,8 +955,11 @@ public class EmployeeService {
         educationRepository.deleteByEmployeeId(id);
         reviewRepository.deleteByEmployeeId(id);
 
-        // Затем удаляем сотрудника
+        // Затем удаляем сотрудника - вместе со строкой уходят и агрегаты отзывов (review_count, rating_sum)
         employeeRepository.delete(employee);
+        TransactionCallbacks.afterCommit(() -> skillIndex.remove(id));
+        TransactionCallbacks.afterCommit(() -> employeeDictionary.remove(id));
+        TransactionCallbacks.afterCommit(filterResultCache::invalidate);
         log.info("Сотрудник ID {} полностью удален из системы", id);
     }
 
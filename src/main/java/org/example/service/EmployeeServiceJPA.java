@@ -22,15 +22,12 @@ public class EmployeeServiceJPA {
     private final EmployeeMapper mapper;
 
     public EmployeeDto getEmployeeById(Long id) {
-        Employee employee = repository.findById(id)
+        return repository.findDtoById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Project not found: " + id));
-
-        return mapper.toDto(employee);
     }
 
     public List<EmployeeDto> getAllEmployee() {
-        List<Employee> employee = repository.findAll();
-        return mapper.toDto(employee);
+        return repository.findAllDtos();
     }
 
     @Transactional
@@ -0,0 +1,59 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.example.config.HibernateCacheConfig;
+import org.example.model.Employee;
+import org.example.model.dto.CacheRegionStats;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Статистика кэша второго уровня и кэша фильтров, ручной сброс кэша второго уровня.
+ * Сброс нужен только после записи в employees в обход Hibernate (JdbcTemplate, SQL вручную):
+ * изменения через сессию Hibernate обновляют кэш сам (стратегия READ_WRITE).
+ */
+@Service
+@RequiredArgsConstructor
+public class EntityCacheService {
+
+    private final CacheManager hibernateCacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final FilterResultCache filterResultCache;
+
+    public List<CacheRegionStats> getStats() {
+        List<CacheRegionStats> result = new ArrayList<>();
+        for (String region : HibernateCacheConfig.REGIONS) {
+            Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+            if (cache == null) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine =
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+            CacheStats stats = caffeine.stats();
+            result.add(new CacheRegionStats(region, caffeine.estimatedSize(),
+                    stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount()));
+        }
+        result.add(filterResultCache.getStats());
+        return result;
+    }
+
+    public void evictEmployee(Long id) {
+        entityManagerFactory.getCache().evict(Employee.class, id);
+    }
+
+    /**
+     * После записи в employees мимо Hibernate (массовый импорт): сотрудники, их навыки и кэшированные запросы.
+     */
+    public void evictAllEmployees() {
+        org.hibernate.Cache cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+        cache.evictEntityData(Employee.class);
+        cache.evictCollectionData(Employee.class.getName() + ".skills");
+        cache.evictQueryRegions();
+    }
+}
@@ -1,18 +1,106 @@
 package org.example.service;
 
+import lombok.extern.slf4j.Slf4j;
 import org.example.model.dto.EmployeeDto;
 import org.example.fileFabrica.FileGenerator;
 import org.example.fileFabrica.FileGeneratorFactory;
 import org.example.fileFabrica.FileFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class FileService {
+
+    private static final Pattern EXPORT_NAME = Pattern.compile("[0-9]+-[0-9a-f-]{36}\\.[a-z]+");
+
+    private final Path exportDirectory;
+    private final Duration exportRetention;
+
+    public FileService(@Value("${app.exports.dir:exports}") String exportDirectory,
+                       @Value("${app.exports.retention:P1D}") Duration exportRetention) {
+        this.exportDirectory = Paths.get(exportDirectory).toAbsolutePath().normalize();
+        this.exportRetention = exportRetention;
+    }
+
     public ByteArrayOutputStream createFile(EmployeeDto employeeDto, FileFormat fileFormat) throws IOException {
         FileGenerator generator = FileGeneratorFactory.getFileGenerator(fileFormat);
         return generator.generateFile(employeeDto);
     }
-}
\ No newline at end of file
+
+    /**
+     * Генерирует файл сразу на диск (без копии в памяти) и возвращает его имя для скачивания.
+     * Имя случайное: по нему нельзя перебрать чужие выгрузки.
+     */
+    public String storeFile(EmployeeDto employeeDto, FileFormat fileFormat) throws IOException {
+        FileGenerator generator = FileGeneratorFactory.getFileGenerator(fileFormat);
+        Files.createDirectories(exportDirectory);
+        String name = employeeDto.getId() + "-" + UUID.randomUUID() + fileFormat.getExtension();
+        Path temp = Files.createTempFile(exportDirectory, ".export-", ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                generator.writeFile(employeeDto, out);
+            }
+            Files.move(temp, exportDirectory.resolve(name), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.info("Выгрузка сохранена: {}", name);
+        return name;
+    }
+
+    /**
+     * Файл сохраненной выгрузки; пусто, если имя некорректно или файл уже удален.
+     */
+    public Optional<Path> findStoredFile(String name) {
+        if (name == null || !EXPORT_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path file = exportDirectory.resolve(name);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Удаляет выгрузки старше app.exports.retention.
+     */
+    @Scheduled(cron = "${app.exports.cleanup-cron:0 0 * * * *}")
+    public void purgeExpired() {
+        if (!Files.isDirectory(exportDirectory)) {
+            return;
+        }
+        long threshold = System.currentTimeMillis() - exportRetention.toMillis();
+        try (Stream<Path> files = Files.list(exportDirectory)) {
+            files.filter(file -> EXPORT_NAME.matcher(file.getFileName().toString()).matches())
+                    .filter(file -> lastModified(file) < threshold)
+                    .forEach(file -> {
+                        try {
+                            Files.deleteIfExists(file);
+                        } catch (IOException e) {
+                            log.warn("Не удалось удалить выгрузку {}: {}", file, e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            log.error("Ошибка очистки выгрузок {}: {}", exportDirectory, e.getMessage(), e);
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
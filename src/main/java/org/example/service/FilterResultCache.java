@@ -0,0 +1,137 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.example.model.dto.CacheRegionStats;
+import org.example.model.dto.EmployeeListRow;
+import org.example.model.dto.EmployeePageBundle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш результатов фильтров списка сотрудников: id строк страницы и итоги.
+ * <p>
+ * Строки не хранятся - при попадании они загружаются по id одним узким запросом
+ * (EmployeeRepositoryCustom.findListRowsByIdInOrder), поэтому содержимое строк всегда актуально. Состав страницы защищен номером версии: любое изменение
+ * сотрудников увеличивает версию (после коммита), и все записи со старой версией считаются промахом.
+ * Версия запоминается до выполнения запроса, так что результат, прочитанный параллельно
+ * с изменением, сохраняется со старой версией и не будет отдан.
+ */
+@Component
+public class FilterResultCache {
+
+    public static final String REGION = "filter-results";
+
+    private final AtomicLong version = new AtomicLong();
+    private final Cache<Key, Versioned> cache;
+
+    /**
+     * Нормализованный набор фильтров: регистр имени, порядок и повторы отделов/должностей
+     * и пустые значения на результат не влияют и на ключ тоже.
+     */
+    public record Key(String query, String name, long skillsMask,
+                      List<String> departments, List<String> positions, Boolean active,
+                      long offset, int size, String sort) {
+
+        public static Key of(String query, String name, long skillsMask,
+                             Collection<String> departments, Collection<String> positions,
+                             Boolean active, Pageable pageable) {
+            return new Key(query,
+                    name == null || name.isEmpty() ? null : name.toLowerCase(Locale.ROOT),
+                    skillsMask, normalize(departments), normalize(positions), active,
+                    pageable.getOffset(), pageable.getPageSize(), pageable.getSort().toString());
+        }
+
+        private static List<String> normalize(Collection<String> values) {
+            if (values == null) {
+                return List.of();
+            }
+            TreeSet<String> sorted = new TreeSet<>();
+            for (String value : values) {
+                if (value != null && !value.isBlank()) {
+                    sorted.add(value);
+                }
+            }
+            return List.copyOf(sorted);
+        }
+    }
+
+    /**
+     * Сохраненный результат: id строк в порядке выдачи и итоги.
+     * activeTotal заполнен только для страницы списка (EmployeePageBundle).
+     */
+    public record Entry(List<Long> ids, long total, long activeTotal) {
+
+        public static Entry of(Page<EmployeeListRow> page) {
+            return new Entry(idsOf(page), page.getTotalElements(), 0);
+        }
+
+        public static Entry of(EmployeePageBundle bundle) {
+            return new Entry(idsOf(bundle.page()), bundle.page().getTotalElements(), bundle.activeTotal());
+        }
+
+        private static List<Long> idsOf(Page<EmployeeListRow> page) {
+            return page.getContent().stream().map(EmployeeListRow::getId).toList();
+        }
+    }
+
+    private record Versioned(long version, Entry entry) {
+    }
+
+    public FilterResultCache(@Value("${app.cache.filters.max-size:1000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Текущая версия; ее нужно получить до запроса к БД и передать в {@link #put}.
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Результат, сохраненный при версии version, или null.
+     */
+    public Entry get(Key key, long version) {
+        Versioned cached = cache.getIfPresent(key);
+        if (cached == null || cached.version() != version) {
+            return null;
+        }
+        return cached.entry();
+    }
+
+    public void put(Key key, long version, Entry entry) {
+        if (version != this.version.get()) {
+            // Данные уже изменились - результат мог устареть
+            return;
+        }
+        cache.asMap().merge(key, new Versioned(version, entry),
+                (current, candidate) -> current.version() >= candidate.version() ? current : candidate);
+    }
+
+    /**
+     * Вызывается после коммита любого изменения сотрудников.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public CacheRegionStats getStats() {
+        CacheStats stats = cache.stats();
+        return new CacheRegionStats(REGION, cache.estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount());
+    }
+}
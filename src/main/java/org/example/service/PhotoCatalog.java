@@ -0,0 +1,317 @@
+package org.example.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Каталог загруженных фото в памяти: наличие, размер, SHA-256 и размеры изображения.
+ * <p>
+ * Каталог фото читается один раз при старте, дальше поддерживается актуальным через
+ * {@link #register}/{@link #remove} из кода загрузки и WatchService на каталоге
+ * (файлы, измененные в обход приложения). Периодическая сверка - страховка для файловых
+ * систем, где события теряются. Проверка фото при показе профиля - поиск в карте без обращения к диску.
+ */
+@Slf4j
+@Component
+public class PhotoCatalog {
+
+    public static final String URL_PREFIX = "/images/";
+    // Файлы хранилища по содержимому (PhotoStorage) лежат в том же каталоге, но отдаются по другому адресу
+    public static final String BLOB_URL_PREFIX = "/photos/";
+    public static final String DIRECTORY_PROPERTY = "${app.photos.dir:src/main/resources/static/images}";
+    // Подкаталог для временных файлов (в т.ч. буфер multipart): перенос из него в каталог - переименование
+    public static final String INCOMING = ".incoming";
+
+    /**
+     * Метаданные файла фото. width/height равны -1, если формат не читается ImageIO (например, WEBP).
+     */
+    public record PhotoInfo(String name, long size, String sha256, int width, int height, long lastModified) {
+    }
+
+    private final Path directory;
+    private final Map<String, PhotoInfo> photos = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+    private Thread watcher;
+
+    public PhotoCatalog(@Value(DIRECTORY_PROPERTY) String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory.resolve(INCOMING));
+        rescan();
+        log.info("Каталог фото {}: {} файлов", directory, photos.size());
+
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            watcher = new Thread(this::watch, "photo-catalog-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("WatchService недоступен для {}, каталог обновляется только сверкой: {}", directory, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public Path getIncomingDirectory() {
+        return directory.resolve(INCOMING);
+    }
+
+    /**
+     * Метаданные по пути фото из Employee.photoPath ("/images/name.jpg", "/photos/name.jpg" или "name.jpg").
+     */
+    public Optional<PhotoInfo> find(String photoPath) {
+        String name = fileName(photoPath);
+        return name != null ? Optional.ofNullable(photos.get(name)) : Optional.empty();
+    }
+
+    public Collection<PhotoInfo> getAll() {
+        return List.copyOf(photos.values());
+    }
+
+    public boolean exists(String photoPath) {
+        return find(photoPath).isPresent();
+    }
+
+    /**
+     * photoPath, если файл есть в каталоге, иначе fallback.
+     */
+    public String resolve(String photoPath, String fallback) {
+        return exists(photoPath) ? photoPath : fallback;
+    }
+
+    /**
+     * Добавляет или обновляет файл сразу после записи, не дожидаясь события WatchService.
+     */
+    public PhotoInfo register(Path file) throws IOException {
+        PhotoInfo info = read(file);
+        photos.put(info.name(), info);
+        return info;
+    }
+
+    /**
+     * Как {@link #register(Path)}, но SHA-256 и размер уже посчитаны вызывающим кодом при записи:
+     * с диска читается только заголовок изображения.
+     */
+    public PhotoInfo register(Path file, String sha256, long size) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        PhotoInfo info = info(file, size, sha256, attributes.lastModifiedTime().toMillis());
+        photos.put(info.name(), info);
+        return info;
+    }
+
+    public void remove(String photoPath) {
+        String name = fileName(photoPath);
+        if (name != null && photos.remove(name) != null) {
+            log.debug("Фото удалено из каталога: {}", name);
+        }
+    }
+
+    /**
+     * Сверка каталога с диском: новые и измененные файлы перечитываются, пропавшие удаляются.
+     * Ошибка чтения одного файла пропускает только его. Запись удаляется, только если файла
+     * нет на диске и в момент удаления: фото, загруженное после листинга, остается в каталоге.
+     */
+    @Scheduled(fixedDelayString = "${app.photos.rescan-interval:PT10M}",
+            initialDelayString = "${app.photos.rescan-interval:PT10M}")
+    public void rescan() {
+        Set<String> present = new HashSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Iterator<Path> it = files.iterator(); it.hasNext(); ) {
+                rescan(it.next(), present);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Ошибка сверки каталога фото {}: {}", directory, e.getMessage(), e);
+            return;
+        }
+        for (PhotoInfo info : photos.values()) {
+            if (!present.contains(info.name()) && !Files.exists(directory.resolve(info.name()))
+                    && photos.remove(info.name(), info)) {
+                log.warn("Фото пропало с диска: {}", info.name());
+            }
+        }
+    }
+
+    private void rescan(Path file, Set<String> present) {
+        String name = file.getFileName().toString();
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // Удален между листингом и чтением - запись уберет проход удаления
+            return;
+        } catch (IOException e) {
+            // Файл есть, но сейчас не читается: запись не трогаем до следующей сверки
+            present.add(name);
+            log.debug("Не удалось прочитать атрибуты фото {}: {}", file, e.getMessage());
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            return;
+        }
+        present.add(name);
+        PhotoInfo known = photos.get(name);
+        if (known == null || known.size() != attributes.size()
+                || known.lastModified() != attributes.lastModifiedTime().toMillis()) {
+            refresh(file);
+        }
+    }
+
+    private void watch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    rescan();
+                    continue;
+                }
+                Path file = directory.resolve((Path) event.context());
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    if (photos.remove(file.getFileName().toString()) != null) {
+                        log.warn("Фото удалено с диска: {}", file.getFileName());
+                    }
+                } else if (isChanged(file)) {
+                    refresh(file);
+                }
+            }
+            if (!key.reset()) {
+                log.warn("Каталог фото {} больше не отслеживается", directory);
+                return;
+            }
+        }
+    }
+
+    // Событие на файл, уже зарегистрированный кодом загрузки с теми же размером и временем, не перечитывается
+    private boolean isChanged(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return false;
+            }
+            PhotoInfo known = photos.get(file.getFileName().toString());
+            return known == null || known.size() != attributes.size()
+                    || known.lastModified() != attributes.lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void refresh(Path file) {
+        try {
+            register(file);
+        } catch (NoSuchFileException e) {
+            photos.remove(file.getFileName().toString());
+        } catch (IOException e) {
+            // Файл может еще дописываться - придет следующее событие ENTRY_MODIFY
+            log.debug("Не удалось прочитать фото {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static PhotoInfo read(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return info(file, attributes.size(), HexFormat.of().formatHex(digest.digest()),
+                attributes.lastModifiedTime().toMillis());
+    }
+
+    private static PhotoInfo info(Path file, long size, String sha256, long lastModified) {
+        int width = -1;
+        int height = -1;
+        // Размеры читаются из заголовка, изображение целиком не декодируется
+        try (ImageInputStream image = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = image != null ? ImageIO.getImageReaders(image) : null;
+            if (readers != null && readers.hasNext()) {
+                ImageReader reader = readers.next();
+                try {
+                    reader.setInput(image, true, true);
+                    width = reader.getWidth(0);
+                    height = reader.getHeight(0);
+                } finally {
+                    reader.dispose();
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Не удалось определить размеры фото {}: {}", file, e.getMessage());
+        }
+
+        return new PhotoInfo(file.getFileName().toString(), size, sha256, width, height, lastModified);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private static String fileName(String photoPath) {
+        if (photoPath == null || photoPath.isBlank()) {
+            return null;
+        }
+        String name;
+        if (photoPath.startsWith(URL_PREFIX)) {
+            name = photoPath.substring(URL_PREFIX.length());
+        } else if (photoPath.startsWith(BLOB_URL_PREFIX)) {
+            name = photoPath.substring(BLOB_URL_PREFIX.length());
+        } else {
+            name = photoPath.replaceFirst("^/", "");
+        }
+        // Только файлы верхнего уровня каталога
+        return name.isEmpty() || name.contains("/") || name.contains("\\") ? null : name;
+    }
+}
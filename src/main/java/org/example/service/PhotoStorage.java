@@ -0,0 +1,235 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.repository.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Хранилище фото по содержимому: файл называется SHA-256 своих байт ("/photos/{sha256}.jpg").
+ * <p>
+ * Одинаковые загрузки хранятся один раз, а содержимое по адресу никогда не меняется,
+ * поэтому /photos/** отдается с Cache-Control: immutable (PhotoResourceConfig).
+ * Файлы не удаляются при обновлении сотрудника - один файл может быть у нескольких сотрудников.
+ * Неиспользуемые файлы удаляет {@link #collectGarbage()} по ссылкам из employees.photo_path
+ * вместе с уменьшенными вариантами (ThumbnailService).
+ */
+@Slf4j
+@Component
+public class PhotoStorage {
+
+    private static final Pattern BLOB_NAME = Pattern.compile("[0-9a-f]{64}\\.[a-z]+");
+
+    /**
+     * Поддерживаемые форматы и их сигнатуры (magic bytes).
+     */
+    enum ImageType {
+        JPEG(".jpg"), PNG(".png"), GIF(".gif"), WEBP(".webp");
+
+        static final int SIGNATURE_LENGTH = 12;
+
+        private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+        private final String extension;
+
+        ImageType(String extension) {
+            this.extension = extension;
+        }
+
+        String getExtension() {
+            return extension;
+        }
+
+        static ImageType detect(byte[] header, int length) {
+            if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+                return JPEG;
+            }
+            if (startsWith(header, length, PNG_SIGNATURE)) {
+                return PNG;
+            }
+            if (startsWith(header, length, "GIF87a".getBytes(StandardCharsets.US_ASCII))
+                    || startsWith(header, length, "GIF89a".getBytes(StandardCharsets.US_ASCII))) {
+                return GIF;
+            }
+            if (length >= 12 && startsWith(header, length, "RIFF".getBytes(StandardCharsets.US_ASCII))
+                    && new String(header, 8, 4, StandardCharsets.US_ASCII).equals("WEBP")) {
+                return WEBP;
+            }
+            return null;
+        }
+
+        private static boolean startsWith(byte[] header, int length, byte[] signature) {
+            if (length < signature.length) {
+                return false;
+            }
+            for (int i = 0; i < signature.length; i++) {
+                if (header[i] != signature[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final PhotoCatalog photoCatalog;
+    private final EmployeeRepository employeeRepository;
+    private final ThumbnailService thumbnailService;
+    private final Duration gcGrace;
+    private final DataSize maxSize;
+
+    public PhotoStorage(PhotoCatalog photoCatalog,
+                        EmployeeRepository employeeRepository,
+                        ThumbnailService thumbnailService,
+                        @Value("${app.photos.gc-grace:PT1H}") Duration gcGrace,
+                        @Value("${app.photos.max-size:5MB}") DataSize maxSize) {
+        this.photoCatalog = photoCatalog;
+        this.employeeRepository = employeeRepository;
+        this.thumbnailService = thumbnailService;
+        this.gcGrace = gcGrace;
+        this.maxSize = maxSize;
+    }
+
+    public static boolean isBlob(String photoPath) {
+        return photoPath != null && photoPath.startsWith(PhotoCatalog.BLOB_URL_PREFIX)
+                && BLOB_NAME.matcher(photoPath.substring(PhotoCatalog.BLOB_URL_PREFIX.length())).matches();
+    }
+
+    /**
+     * Путь фото по имени файла в каталоге: файлы хранилища по содержимому - "/photos/",
+     * остальные (старые загрузки) - "/images/".
+     */
+    public static String photoPath(String name) {
+        return BLOB_NAME.matcher(name).matches()
+                ? PhotoCatalog.BLOB_URL_PREFIX + name
+                : PhotoCatalog.URL_PREFIX + name;
+    }
+
+    /**
+     * Сохраняет загрузку и возвращает ее путь для Employee.photoPath.
+     * <p>
+     * Контейнер уже записал часть multipart во временный файл в {@link PhotoCatalog#getIncomingDirectory()}
+     * (MultipartConfig). Он читается один раз потоком: тип определяется по сигнатуре
+     * в первых байтах (заявленный клиентом Content-Type не учитывается), размер проверяется по мере
+     * чтения, SHA-256 считается на лету. Затем файл переносится на место переименованием - без
+     * второй записи на диск. Если такое фото уже есть, загрузка не сохраняется вовсе.
+     */
+    public String store(MultipartFile file) throws IOException {
+        if (file.getSize() > maxSize.toBytes()) {
+            throw new IllegalArgumentException(tooLargeMessage());
+        }
+
+        MessageDigest digest = sha256();
+        ImageType type;
+        long total;
+        try (InputStream in = file.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int headerLength = in.readNBytes(buffer, 0, ImageType.SIGNATURE_LENGTH);
+            type = ImageType.detect(buffer, headerLength);
+            if (type == null) {
+                throw new IllegalArgumentException("Файл не является изображением JPG, PNG, GIF или WEBP");
+            }
+            digest.update(buffer, 0, headerLength);
+            total = headerLength;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxSize.toBytes()) {
+                    throw new IllegalArgumentException(tooLargeMessage());
+                }
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        String name = sha256 + type.getExtension();
+        Path target = photoCatalog.getDirectory().resolve(name);
+        if (Files.exists(target)) {
+            // Такое фото уже есть; свежая метка защищает файл от сборщика до коммита сотрудника
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            log.debug("Фото {} уже сохранено, повторная загрузка не записана", name);
+        } else {
+            Path incoming = photoCatalog.getIncomingDirectory();
+            Files.createDirectories(incoming);
+            Path temp = incoming.resolve("upload-" + UUID.randomUUID() + ".tmp");
+            try {
+                // transferTo(File): контейнер переименовывает свой временный файл;
+                // transferTo(Path) скопировал бы содержимое потоком - вторая запись на диск
+                file.transferTo(temp.toFile());
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Параллельная загрузка того же файла - содержимое совпадает
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.info("Фото сохранено: {}", name);
+        }
+
+        // Хэш и размер уже посчитаны при чтении - каталог файл не перечитывает
+        photoCatalog.register(target, sha256, total);
+        String photoPath = PhotoCatalog.BLOB_URL_PREFIX + name;
+        thumbnailService.generate(photoPath);
+        return photoPath;
+    }
+
+    private String tooLargeMessage() {
+        return "Файл слишком большой. Максимальный размер: " + maxSize.toMegabytes() + "MB";
+    }
+
+    /**
+     * Удаляет файлы, на которые не ссылается ни один сотрудник (включая мягко удаленных).
+     * Файлы моложе app.photos.gc-grace не трогаются: ссылка на них может быть еще не закоммичена.
+     *
+     * @return количество удаленных файлов
+     */
+    @Scheduled(cron = "${app.photos.gc-cron:0 15 4 * * *}")
+    public int collectGarbage() {
+        Map<String, Long> references = employeeRepository.countPhotoReferences().stream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> ((Number) row[1]).longValue()));
+        Set<String> referenced = references.keySet();
+        long threshold = System.currentTimeMillis() - gcGrace.toMillis();
+
+        int removed = 0;
+        for (PhotoCatalog.PhotoInfo photo : photoCatalog.getAll()) {
+            String photoPath = PhotoCatalog.BLOB_URL_PREFIX + photo.name();
+            if (!isBlob(photoPath) || referenced.contains(photoPath) || photo.lastModified() > threshold) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(photoCatalog.getDirectory().resolve(photo.name()));
+                photoCatalog.remove(photoPath);
+                thumbnailService.deleteVariants(photoPath);
+                removed++;
+            } catch (IOException e) {
+                log.warn("Не удалось удалить неиспользуемое фото {}: {}", photo.name(), e.getMessage());
+            }
+        }
+        log.info("Сборка фото: удалено {}, используется {}", removed, references.size());
+        return removed;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+}
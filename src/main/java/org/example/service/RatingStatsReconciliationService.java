@@ -0,0 +1,61 @@
+package org.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Сверка агрегатов отзывов на employees (review_count, rating_sum, rating_1..rating_5) с таблицей reviews.
+ * <p>
+ * Агрегаты меняются в EmployeeService.saveReview; запись в reviews в обход сервиса
+ * (SQL вручную, импорт) оставляет их устаревшими. Один UPDATE пересчитывает все строки
+ * и трогает только те, где значения разошлись.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RatingStatsReconciliationService {
+
+    private static final String RECONCILE =
+            "UPDATE employees e SET review_count = s.review_count, rating_sum = s.rating_sum, " +
+                    "rating_1 = s.rating_1, rating_2 = s.rating_2, rating_3 = s.rating_3, " +
+                    "rating_4 = s.rating_4, rating_5 = s.rating_5 " +
+                    "FROM (SELECT emp.id, " +
+                    "             COUNT(r.id) AS review_count, " +
+                    "             COALESCE(SUM(r.rating), 0) AS rating_sum, " +
+                    "             COUNT(*) FILTER (WHERE r.rating = 1) AS rating_1, " +
+                    "             COUNT(*) FILTER (WHERE r.rating = 2) AS rating_2, " +
+                    "             COUNT(*) FILTER (WHERE r.rating = 3) AS rating_3, " +
+                    "             COUNT(*) FILTER (WHERE r.rating = 4) AS rating_4, " +
+                    "             COUNT(*) FILTER (WHERE r.rating = 5) AS rating_5 " +
+                    "      FROM employees emp LEFT JOIN reviews r ON r.employee_id = emp.id " +
+                    "      GROUP BY emp.id) s " +
+                    "WHERE e.id = s.id " +
+                    "AND (e.review_count, e.rating_sum, e.rating_1, e.rating_2, e.rating_3, e.rating_4, e.rating_5) " +
+                    "IS DISTINCT FROM (s.review_count, s.rating_sum, s.rating_1, s.rating_2, s.rating_3, s.rating_4, s.rating_5) " +
+                    "RETURNING e.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityCacheService entityCacheService;
+
+    /**
+     * Исправляет расхождения и возвращает число исправленных сотрудников.
+     */
+    @Scheduled(cron = "${app.ratings.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        List<Long> fixedIds = jdbcTemplate.queryForList(RECONCILE, Long.class);
+        // UPDATE прошел мимо Hibernate: исправленные строки убираем из кэша второго уровня
+        fixedIds.forEach(entityCacheService::evictEmployee);
+        int fixed = fixedIds.size();
+        if (fixed > 0) {
+            log.warn("Агрегаты отзывов исправлены у {} сотрудников", fixed);
+        } else {
+            log.debug("Агрегаты отзывов совпадают с таблицей reviews");
+        }
+        return fixed;
+    }
+}
@@ -0,0 +1,297 @@
+package org.example.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Employee;
+import org.example.model.Skills;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory индекс навыков неудаленных сотрудников.
+ * Для каждого сотрудника хранится 64-битная маска навыков (бит = ordinal {@link Skills}),
+ * для каждого навыка - список сотрудников в виде битового множества по порядковым номерам.
+ * Номера плотные (ID из пула последовательности идут с пропусками): при перестройке выдаются
+ * по возрастанию ID, новым сотрудникам - сначала освобожденные номера удаленных, затем следующие
+ * по порядку. Так число номеров не превышает наибольшее число сотрудников в индексе.
+ * Запросы "все/любой из навыков" и подсчет по навыкам не обращаются к БД.
+ */
+@Slf4j
+@Component
+public class SkillIndex {
+
+    static {
+        if (Skills.values().length > Long.SIZE) {
+            throw new IllegalStateException("Маска навыков рассчитана максимум на " + Long.SIZE + " навыка");
+        }
+    }
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Map<Long, Long> masks = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int nextOrdinal;
+    // Номера удаленных сотрудников, выдаются повторно
+    private final BitSet freeOrdinals = new BitSet();
+    // Номера выданы по возрастанию ID - результат не нужно сортировать
+    private boolean ordered = true;
+    private final BitSet present = new BitSet();
+    private final BitSet[] postings = new BitSet[Skills.values().length];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Изменения за время чтения снимка для перестройки (null - сотрудник исключен), применяются поверх снимка
+    private Map<Long, Long> pendingChanges;
+    private int rebuildsInProgress;
+
+    public SkillIndex() {
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = new BitSet();
+        }
+    }
+
+    /**
+     * Полная перестройка индекса. Ключ - ID сотрудника, значение - маска навыков.
+     */
+    public void rebuild(Map<Long, Long> employeeMasks) {
+        rebuild(() -> employeeMasks);
+    }
+
+    /**
+     * Полная перестройка по снимку из БД. Изменения, пришедшие после коммита, пока снимок читается,
+     * не теряются: они запоминаются и применяются поверх снимка.
+     */
+    public void rebuild(Supplier<Map<Long, Long>> snapshot) {
+        lock.writeLock().lock();
+        try {
+            if (rebuildsInProgress++ == 0) {
+                pendingChanges = new HashMap<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Long> employeeMasks = null;
+        try {
+            employeeMasks = snapshot.get();
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (employeeMasks != null) {
+                    replaceUnlocked(employeeMasks);
+                    log.info("Индекс навыков построен: {} сотрудников", masks.size());
+                }
+                if (--rebuildsInProgress == 0) {
+                    pendingChanges = null;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Актуализация записи сотрудника; удаленные сотрудники из индекса исключаются.
+     */
+    public void update(Employee employee) {
+        if (employee.getId() == null) {
+            return;
+        }
+        if (employee.isDeleted()) {
+            remove(employee.getId());
+            return;
+        }
+        long mask = employee.getSkillsMask();
+        lock.writeLock().lock();
+        try {
+            putUnlocked(employee.getId(), mask);
+            if (pendingChanges != null) {
+                pendingChanges.put(employee.getId(), mask);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long employeeId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(employeeId);
+            if (pendingChanges != null) {
+                pendingChanges.put(employeeId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * ID сотрудников по возрастанию (не больше limit), у которых есть все указанные навыки (matchAll,
+     * пустой список - все сотрудники) или хотя бы один из них (пустой список - никто).
+     */
+    public List<Long> find(Collection<Skills> skills, boolean matchAll, int limit) {
+        lock.readLock().lock();
+        try {
+            return toIdsUnlocked(select(skills, matchAll), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Количество сотрудников по каждому навыку внутри выборки (навыки без совпадений не попадают).
+     * Выборка - как в {@link #find}.
+     */
+    public Map<Skills, Integer> countBySkill(Collection<Skills> skills, boolean matchAll) {
+        lock.readLock().lock();
+        try {
+            BitSet employees = select(skills, matchAll);
+            Map<Skills, Integer> counts = new EnumMap<>(Skills.class);
+            Skills[] values = Skills.values();
+            for (int i = 0; i < postings.length; i++) {
+                BitSet posting = postings[i];
+                if (!posting.intersects(employees)) {
+                    continue;
+                }
+                BitSet intersection = (BitSet) posting.clone();
+                intersection.and(employees);
+                counts.put(values[i], intersection.cardinality());
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Skills> skillsOf(Long employeeId) {
+        lock.readLock().lock();
+        try {
+            Long mask = masks.get(employeeId);
+            EnumSet<Skills> skills = EnumSet.noneOf(Skills.class);
+            if (mask != null) {
+                for (Skills skill : Skills.values()) {
+                    if ((mask & skill.bit()) != 0) {
+                        skills.add(skill);
+                    }
+                }
+            }
+            return skills;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Номера сотрудников выборки; вызывается под блокировкой
+    private BitSet select(Collection<Skills> skills, boolean matchAll) {
+        BitSet result = null;
+        for (Skills skill : skills) {
+            if (result == null) {
+                result = (BitSet) postings[skill.ordinal()].clone();
+            } else if (matchAll) {
+                result.and(postings[skill.ordinal()]);
+            } else {
+                result.or(postings[skill.ordinal()]);
+            }
+        }
+        if (result != null) {
+            return result;
+        }
+        return matchAll ? (BitSet) present.clone() : new BitSet();
+    }
+
+    private List<Long> toIdsUnlocked(BitSet employees, int limit) {
+        if (ordered) {
+            List<Long> result = new ArrayList<>(Math.min(employees.cardinality(), limit));
+            for (int i = employees.nextSetBit(0); i >= 0 && result.size() < limit; i = employees.nextSetBit(i + 1)) {
+                result.add(ids[i]);
+            }
+            return result;
+        }
+        // Новый ID меньше уже выданного (несколько узлов берут id из пула) - порядок восстанавливается сортировкой
+        return employees.stream()
+                .mapToLong(i -> ids[i])
+                .sorted()
+                .limit(limit)
+                .boxed()
+                .toList();
+    }
+
+    private void replaceUnlocked(Map<Long, Long> employeeMasks) {
+        masks.clear();
+        ordinals.clear();
+        ids = new long[Math.max(INITIAL_CAPACITY, employeeMasks.size() + pendingChanges.size())];
+        nextOrdinal = 0;
+        freeOrdinals.clear();
+        ordered = true;
+        present.clear();
+        for (BitSet posting : postings) {
+            posting.clear();
+        }
+        employeeMasks.keySet().stream()
+                .sorted()
+                .forEach(id -> putUnlocked(id, employeeMasks.get(id)));
+        pendingChanges.forEach((id, mask) -> {
+            if (mask != null) {
+                putUnlocked(id, mask);
+            } else {
+                removeUnlocked(id);
+            }
+        });
+    }
+
+    private void putUnlocked(Long employeeId, long mask) {
+        int ordinal = ordinal(employeeId);
+        Long old = masks.put(employeeId, mask);
+        if (old != null) {
+            clearBits(ordinal, old & ~mask);
+        }
+        present.set(ordinal);
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            postings[Long.numberOfTrailingZeros(bits)].set(ordinal);
+        }
+    }
+
+    private void removeUnlocked(Long employeeId) {
+        Long old = masks.remove(employeeId);
+        if (old != null) {
+            int ordinal = ordinals.remove(employeeId);
+            clearBits(ordinal, old);
+            present.clear(ordinal);
+            freeOrdinals.set(ordinal);
+        }
+    }
+
+    private void clearBits(int ordinal, long mask) {
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            postings[Long.numberOfTrailingZeros(bits)].clear(ordinal);
+        }
+    }
+
+    private int ordinal(Long employeeId) {
+        Integer existing = ordinals.get(employeeId);
+        if (existing != null) {
+            return existing;
+        }
+        int ordinal = freeOrdinals.nextSetBit(0);
+        if (ordinal >= 0) {
+            freeOrdinals.clear(ordinal);
+        } else {
+            if (nextOrdinal == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ordinal = nextOrdinal++;
+        }
+        // Порядок сохраняется, только если ID больше соседа слева и меньше соседа справа
+        int previous = present.previousSetBit(ordinal - 1);
+        int next = present.nextSetBit(ordinal + 1);
+        if ((previous >= 0 && employeeId < ids[previous]) || (next >= 0 && employeeId > ids[next])) {
+            ordered = false;
+        }
+        ids[ordinal] = employeeId;
+        ordinals.put(employeeId, ordinal);
+        return ordinal;
+    }
+}
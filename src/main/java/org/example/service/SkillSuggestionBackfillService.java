@@ -0,0 +1,192 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.SkillExtractor;
+import org.example.model.Skills;
+import org.example.model.dto.BackfillStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Фоновое заполнение employee_skill_suggestions по всей таблице сотрудников.
+ * Читает только id, resume, about и skills_mask порциями по возрастанию id (без загрузки сущностей),
+ * порции разбираются {@link SkillExtractor} параллельно и записываются пакетными INSERT.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SkillSuggestionBackfillService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int WORKERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final String SELECT_CHUNK =
+            "SELECT id, resume, about, skills_mask FROM employees " +
+                    "WHERE deleted = false AND id > ? ORDER BY id LIMIT ?";
+    private static final String INSERT_SUGGESTION =
+            "INSERT INTO employee_skill_suggestions (employee_id, skill) VALUES (?, ?) " +
+                    "ON CONFLICT (employee_id, skill) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicReference<BackfillStatus> status = new AtomicReference<>(BackfillStatus.IDLE);
+
+    // Один пул на задачу: поток чтения порций и обработчики. Очередь ограничена - при заполнении
+    // порцию обрабатывает сам поток чтения, и чтение не уходит далеко вперед записи
+    private final AtomicInteger threadNumber = new AtomicInteger();
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKERS + 1, WORKERS + 1,
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(WORKERS * 2),
+            task -> {
+                Thread thread = new Thread(task, "skill-suggestion-backfill-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+
+    private record Row(long id, String resume, String about, long skillsMask) {
+    }
+
+    /**
+     * Подсказки сотрудника без навыков, которые у него уже отмечены: строки таблицы не удаляются
+     * при изменении навыков, поэтому сверяются с текущей skills_mask.
+     */
+    public List<Skills> findSuggestions(Long employeeId) {
+        return jdbcTemplate.query(
+                        "SELECT s.skill, e.skills_mask FROM employee_skill_suggestions s " +
+                                "JOIN employees e ON e.id = s.employee_id " +
+                                "WHERE s.employee_id = ? ORDER BY s.skill",
+                        (rs, rowNum) -> {
+                            Skills skill = Skills.fromString(rs.getString("skill"));
+                            return skill != null && (rs.getLong("skills_mask") & skill.bit()) == 0 ? skill : null;
+                        },
+                        employeeId).stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    public BackfillStatus getStatus() {
+        return status.get();
+    }
+
+    /**
+     * Запускает задачу, если она еще не идет. Возвращает текущее состояние.
+     */
+    public BackfillStatus start() {
+        BackfillStatus current = status.get();
+        if (current.running()) {
+            return current;
+        }
+        BackfillStatus started = new BackfillStatus(true, 0, 0, LocalDateTime.now(), null, null);
+        if (!status.compareAndSet(current, started)) {
+            return status.get();
+        }
+        executor.execute(() -> run(started.startedAt()));
+        return started;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(LocalDateTime startedAt) {
+        AtomicLong processed = new AtomicLong();
+        AtomicLong written = new AtomicLong();
+        List<Future<?>> pending = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        String error = null;
+        try {
+            long lastId = 0;
+            while (true) {
+                List<Row> chunk = jdbcTemplate.query(SELECT_CHUNK,
+                        (rs, rowNum) -> new Row(rs.getLong("id"), rs.getString("resume"),
+                                rs.getString("about"), rs.getLong("skills_mask")),
+                        lastId, CHUNK_SIZE);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).id();
+                pending.add(executor.submit(() -> {
+                    written.addAndGet(processChunk(chunk));
+                    publishProgress(startedAt, processed.addAndGet(chunk.size()), written.get());
+                }));
+                collectFinished(pending, failures, false);
+            }
+            collectFinished(pending, failures, true);
+        } catch (Exception e) {
+            log.error("Ошибка фонового поиска навыков в резюме: {}", e.getMessage(), e);
+            error = e.getMessage();
+            pending.forEach(future -> future.cancel(true));
+        }
+        // Ошибка порции не останавливает остальные, но попадает в итоговое состояние
+        if (error == null && !failures.isEmpty()) {
+            error = "Порций с ошибкой: " + failures.size() + ", первая: " + failures.get(0).getMessage();
+        }
+        status.set(new BackfillStatus(false, processed.get(), written.get(), startedAt, LocalDateTime.now(), error));
+        log.info("Поиск навыков в резюме завершен: обработано {}, записано подсказок {}",
+                processed.get(), written.get());
+    }
+
+    // Обработчики завершаются в любом порядке: прогресс только растет и не меняется после завершения задачи
+    private void publishProgress(LocalDateTime startedAt, long done, long writtenSoFar) {
+        status.updateAndGet(current -> current.running() && startedAt.equals(current.startedAt())
+                && done > current.processed()
+                ? new BackfillStatus(true, done, Math.max(writtenSoFar, current.written()), startedAt, null, null)
+                : current);
+    }
+
+    /**
+     * Убирает из pending завершенные задачи (при await - дожидается всех), ошибки задач - в failures.
+     */
+    private static void collectFinished(List<Future<?>> pending, List<Throwable> failures, boolean await)
+            throws InterruptedException {
+        Iterator<Future<?>> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            Future<?> future = iterator.next();
+            if (!await && !future.isDone()) {
+                continue;
+            }
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Ошибка порции поиска навыков в резюме: {}", e.getCause().getMessage(), e.getCause());
+                failures.add(e.getCause());
+            }
+            iterator.remove();
+        }
+    }
+
+    private int processChunk(List<Row> chunk) {
+        SkillExtractor extractor = SkillExtractor.getInstance();
+        List<Object[]> batch = new ArrayList<>();
+        for (Row row : chunk) {
+            Set<Skills> found = extractor.extract(row.resume(), row.about());
+            for (Skills skill : found) {
+                if ((row.skillsMask() & skill.bit()) == 0) {
+                    batch.add(new Object[]{row.id(), skill.name()});
+                }
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        int written = 0;
+        for (int count : jdbcTemplate.batchUpdate(INSERT_SUGGESTION, batch)) {
+            written += Math.max(count, 0);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,244 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.model.Employee;
+import org.example.model.PhotoSize;
+import org.example.model.dto.EmployeeListRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Уменьшенные варианты фото (PhotoSize.THUMB, PhotoSize.MEDIUM), которые создаются в фоне.
+ * <p>
+ * Задачи ставятся после сохранения загрузки (PhotoStorage.store), при первом запросе варианта
+ * и периодической досборкой для старых фото. Потоков и мест в очереди фиксированное число:
+ * декодирование большого изображения занимает много памяти, а задача, не попавшая в очередь,
+ * будет поставлена снова при следующем запросе или досборке. Пока варианта нет,
+ * {@link #resolve} отдает оригинал.
+ */
+@Slf4j
+@Component
+public class ThumbnailService {
+
+    private static final PhotoSize[] VARIANTS = {PhotoSize.THUMB, PhotoSize.MEDIUM};
+
+    private final PhotoCatalog photoCatalog;
+    private final ThreadPoolExecutor executor;
+    // Фото, для которых задача уже в очереди или выполняется
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailService(PhotoCatalog photoCatalog,
+                            @Value("${app.photos.thumbnails.workers:2}") int workers,
+                            @Value("${app.photos.thumbnails.queue-capacity:200}") int queueCapacity) {
+        this.photoCatalog = photoCatalog;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Путь варианта нужного размера, если он уже создан, иначе путь оригинала
+     * (и задача на создание вариантов).
+     */
+    public String resolve(String photoPath, PhotoSize size) {
+        if (size == PhotoSize.ORIGINAL || photoPath == null) {
+            return photoPath;
+        }
+        String variant = size.variantOf(photoPath);
+        if (photoCatalog.exists(variant)) {
+            return variant;
+        }
+        if (isReadable(photoPath)) {
+            generate(photoPath);
+        }
+        return photoPath;
+    }
+
+    /**
+     * Как Employee.getDisplayPhotoPath, но для нужного размера; используется из шаблонов.
+     */
+    public String getDisplayPhotoPath(Employee employee, PhotoSize size) {
+        return resolve(employee.getDisplayPhotoPath(), size);
+    }
+
+    public String getDisplayPhotoPath(EmployeeListRow employee, PhotoSize size) {
+        return resolve(employee.getDisplayPhotoPath(), size);
+    }
+
+    /**
+     * Ставит создание недостающих вариантов в очередь; повторная постановка того же фото игнорируется.
+     */
+    public void generate(String photoPath) {
+        if (!pending.add(photoPath)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    createVariants(photoPath);
+                } finally {
+                    pending.remove(photoPath);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(photoPath);
+            log.debug("Очередь уменьшенных фото заполнена, {} будет обработано позже", photoPath);
+        }
+    }
+
+    /**
+     * Досборка вариантов для фото из каталога, у которых их нет (старые загрузки, пропущенные задачи).
+     */
+    @Scheduled(fixedDelayString = "${app.photos.rescan-interval:PT10M}", initialDelayString = "PT1M")
+    public void backfill() {
+        int queued = 0;
+        for (PhotoCatalog.PhotoInfo photo : photoCatalog.getAll()) {
+            // Путь тот же, что у store/resolve: иначе одно фото попадет в pending под двумя ключами
+            String photoPath = PhotoStorage.photoPath(photo.name());
+            if (PhotoSize.isVariant(photo.name()) || photo.width() < 0 || hasAllVariants(photoPath)) {
+                continue;
+            }
+            if (executor.getQueue().remainingCapacity() == 0) {
+                break;
+            }
+            generate(photoPath);
+            queued++;
+        }
+        if (queued > 0) {
+            log.info("Поставлено на создание уменьшенных вариантов: {} фото", queued);
+        }
+    }
+
+    /**
+     * Удаляет варианты фото (вызывается при удалении оригинала).
+     */
+    public void deleteVariants(String photoPath) {
+        for (PhotoSize size : VARIANTS) {
+            String variant = size.variantOf(photoPath);
+            try {
+                Files.deleteIfExists(photoCatalog.getDirectory().resolve(fileName(variant)));
+                photoCatalog.remove(variant);
+            } catch (IOException e) {
+                log.warn("Не удалось удалить вариант фото {}: {}", variant, e.getMessage());
+            }
+        }
+    }
+
+    private boolean hasAllVariants(String photoPath) {
+        for (PhotoSize size : VARIANTS) {
+            if (!photoCatalog.exists(size.variantOf(photoPath))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Размеры в каталоге известны только для форматов, которые читает ImageIO
+    private boolean isReadable(String photoPath) {
+        return photoCatalog.find(photoPath).map(photo -> photo.width() > 0).orElse(false);
+    }
+
+    private void createVariants(String photoPath) {
+        Path source = photoCatalog.getDirectory().resolve(fileName(photoPath));
+        try {
+            BufferedImage original = ImageIO.read(source.toFile());
+            if (original == null) {
+                log.debug("Формат фото {} не поддерживается, варианты не создаются", photoPath);
+                return;
+            }
+            for (PhotoSize size : VARIANTS) {
+                String variant = size.variantOf(photoPath);
+                if (!photoCatalog.exists(variant)) {
+                    write(scale(original, size.getMaxDimension(), variant.endsWith(".png")), variant);
+                }
+            }
+            log.debug("Созданы уменьшенные варианты фото {}", photoPath);
+        } catch (IOException e) {
+            log.warn("Не удалось создать варианты фото {}: {}", photoPath, e.getMessage());
+        }
+    }
+
+    private void write(BufferedImage image, String variant) throws IOException {
+        Path incoming = photoCatalog.getIncomingDirectory();
+        Files.createDirectories(incoming);
+        Path temp = Files.createTempFile(incoming, "variant-", ".tmp");
+        try {
+            if (!ImageIO.write(image, variant.endsWith(".png") ? "png" : "jpg", temp.toFile())) {
+                throw new IOException("Нет записи ImageIO для " + variant);
+            }
+            Path target = photoCatalog.getDirectory().resolve(fileName(variant));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            photoCatalog.register(target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Уменьшение с сохранением пропорций; большие изображения уменьшаются вдвое за шаг,
+     * чтобы билинейная интерполяция не давала ступенек. Увеличения нет.
+     */
+    static BufferedImage scale(BufferedImage original, int maxDimension, boolean keepAlpha) {
+        double ratio = Math.min(1.0, (double) maxDimension / Math.max(original.getWidth(), original.getHeight()));
+        int width = Math.max(1, (int) Math.round(original.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * ratio));
+
+        BufferedImage current = original;
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2, keepAlpha);
+        }
+        return draw(current, width, height, keepAlpha);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean keepAlpha) {
+        BufferedImage target = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            if (!keepAlpha) {
+                // JPEG без прозрачности - прозрачные области становятся белыми
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private static String fileName(String photoPath) {
+        return photoPath.substring(photoPath.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.service.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV по RFC 4180: поля в кавычках могут содержать разделитель, кавычки ("") и переводы строк.
+ * Разделитель - запятая или точка с запятой (так сохраняет Excel с русской локалью),
+ * определяется по заголовку. Кодировка UTF-8, BOM пропускается.
+ */
+public class CsvReader implements TabularReader {
+
+    private static final char BOM = '\uFEFF';
+
+    @Override
+    public void read(Path file, RowHandler handler) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.mark(1);
+            if (reader.read() != BOM) {
+                reader.reset();
+            }
+            read(reader, handler);
+        }
+    }
+
+    void read(BufferedReader reader, RowHandler handler) throws IOException {
+        char delimiter = detectDelimiter(reader);
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        boolean rowStarted = false;
+        long rowNumber = 1;
+        long rowStart = 1;
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        cell.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        rowNumber++;
+                    }
+                    cell.append((char) c);
+                }
+                continue;
+            }
+            if (c == '"' && cell.isEmpty()) {
+                quoted = true;
+                rowStarted = true;
+            } else if (c == delimiter) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+                rowStarted = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (rowStarted || !cell.isEmpty()) {
+                    cells.add(cell.toString());
+                    handler.row(rowStart, cells);
+                    cells = new ArrayList<>();
+                    cell.setLength(0);
+                }
+                rowStarted = false;
+                rowNumber++;
+                rowStart = rowNumber;
+            } else {
+                cell.append((char) c);
+                rowStarted = true;
+            }
+        }
+        if (rowStarted || !cell.isEmpty()) {
+            cells.add(cell.toString());
+            handler.row(rowStart, cells);
+        }
+    }
+
+    // Разделитель, которого в первой строке больше; первая строка - заголовок, длинной она не бывает
+    private static char detectDelimiter(BufferedReader reader) throws IOException {
+        reader.mark(8192);
+        int commas = 0;
+        int semicolons = 0;
+        int c;
+        int read = 0;
+        while ((c = reader.read()) != -1 && c != '\n' && c != '\r' && ++read < 8192) {
+            if (c == ',') {
+                commas++;
+            } else if (c == ';') {
+                semicolons++;
+            }
+        }
+        reader.reset();
+        return semicolons > commas ? ';' : ',';
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.service.importer;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Заголовок файла импорта: номер колонки для каждого поля сотрудника.
+ * Порядок колонок любой, названия - английские или русские, регистр не важен; лишние колонки пропускаются.
+ */
+public final class ImportHeader {
+
+    public enum Column {
+        NAME(true, "name", "имя", "фио"),
+        EMAIL(true, "email", "e-mail", "почта"),
+        PHONE(false, "phone", "phone_number", "phonenumber", "телефон"),
+        TELEGRAM(false, "telegram", "телеграм"),
+        POSITION(false, "position", "должность"),
+        DEPARTMENT(false, "department", "отдел"),
+        SKILLS(false, "skills", "навыки");
+
+        private final boolean required;
+        private final List<String> names;
+
+        Column(boolean required, String... names) {
+            this.required = required;
+            this.names = List.of(names);
+        }
+    }
+
+    private final Map<Column, Integer> indexes;
+
+    private ImportHeader(Map<Column, Integer> indexes) {
+        this.indexes = indexes;
+    }
+
+    /**
+     * @throws IllegalArgumentException нет колонки имени или email
+     */
+    public static ImportHeader of(List<String> cells) {
+        Map<Column, Integer> indexes = new EnumMap<>(Column.class);
+        for (int i = 0; i < cells.size(); i++) {
+            String name = cells.get(i).trim().toLowerCase(Locale.ROOT);
+            for (Column column : Column.values()) {
+                if (column.names.contains(name)) {
+                    indexes.putIfAbsent(column, i);
+                }
+            }
+        }
+        String missing = Stream.of(Column.values())
+                .filter(column -> column.required && !indexes.containsKey(column))
+                .map(column -> column.names.get(0))
+                .collect(Collectors.joining(", "));
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("В заголовке нет обязательных колонок: " + missing);
+        }
+        return new ImportHeader(indexes);
+    }
+
+    /**
+     * Значение ячейки без пробелов по краям; null, если колонки нет или ячейка пуста.
+     */
+    public String value(List<String> cells, Column column) {
+        Integer index = indexes.get(column);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.service.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Потоковое чтение таблицы из файла: строки передаются обработчику по одной,
+ * файл целиком в память не загружается.
+ */
+public interface TabularReader {
+
+    @FunctionalInterface
+    interface RowHandler {
+        /**
+         * @param rowNumber номер строки в файле с единицы
+         * @param cells     значения ячеек по порядку колонок; пустые ячейки - пустые строки
+         */
+        void row(long rowNumber, List<String> cells);
+    }
+
+    void read(Path file, RowHandler handler) throws IOException;
+
+    /**
+     * Читатель по расширению имени файла: .xlsx или .csv.
+     */
+    static TabularReader forFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".xlsx")) {
+            return new XlsxReader();
+        }
+        if (name.endsWith(".csv")) {
+            return new CsvReader();
+        }
+        throw new IllegalArgumentException("Поддерживаются файлы .xlsx и .csv");
+    }
+}
@@ -0,0 +1,2 @@
+-- Индекс для keyset-пагинации списка сотрудников (ORDER BY name, id)
+CREATE INDEX IF NOT EXISTS idx_employees_name_id ON employees (name, id);
@@ -0,0 +1,14 @@
+-- Триграммные индексы для поиска по подстроке (LIKE '%...%').
+-- B-tree idx_employees_name такой поиск обслужить не может, без них каждый поиск - seq scan.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Выражения совпадают с теми, что используются в запросах поиска
+CREATE INDEX IF NOT EXISTS idx_employees_name_trgm
+    ON employees USING gin (LOWER(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_employees_email_trgm
+    ON employees USING gin (LOWER(email) gin_trgm_ops);
+
+-- Телефон храним в произвольном формате, ищем только по цифрам
+CREATE INDEX IF NOT EXISTS idx_employees_phone_trgm
+    ON employees USING gin (REGEXP_REPLACE(phone_number, '[^0-9]', '', 'g') gin_trgm_ops);
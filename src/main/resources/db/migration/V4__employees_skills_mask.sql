@@ -0,0 +1,4 @@
+-- Денормализованная маска навыков: бит i = навык с ordinal i в org.example.model.Skills.
+-- Фильтр "есть все навыки" становится одним условием (skills_mask & :mask) = :mask без JOIN на employee_skills.
+-- Значения заполняет Java-миграция V5__Backfill_skills_mask (порядок навыков известен только в коде).
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS skills_mask BIGINT NOT NULL DEFAULT 0;
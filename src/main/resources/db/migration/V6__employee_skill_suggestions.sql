@@ -0,0 +1,11 @@
+-- Навыки, найденные в резюме и "о себе", но не отмеченные у сотрудника.
+-- Заполняется фоновой задачей SkillSuggestionBackfillService.
+-- Версия 5 - Java-миграция db.migration.V5__Backfill_skills_mask (src/main/java/db/migration),
+-- поэтому следующий SQL-файл после V4 - V6.
+CREATE TABLE IF NOT EXISTS employee_skill_suggestions
+(
+    employee_id BIGINT       NOT NULL REFERENCES employees (id) ON DELETE CASCADE,
+    skill       VARCHAR(255) NOT NULL,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (employee_id, skill)
+);
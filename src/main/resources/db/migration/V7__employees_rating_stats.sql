@@ -0,0 +1,51 @@
+-- Денормализованные агрегаты отзывов (org.example.model.RatingStats).
+-- Поддерживаются атомарным UPDATE при записи отзыва; расхождения исправляет RatingStatsReconciliationService.
+ALTER TABLE employees
+    ADD COLUMN IF NOT EXISTS review_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_sum   BIGINT  NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_1     INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_2     INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_3     INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_4     INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS rating_5     INTEGER NOT NULL DEFAULT 0;
+
+-- Начальное заполнение одним проходом по reviews
+UPDATE employees e
+SET review_count = s.review_count,
+    rating_sum   = s.rating_sum,
+    rating_1     = s.rating_1,
+    rating_2     = s.rating_2,
+    rating_3     = s.rating_3,
+    rating_4     = s.rating_4,
+    rating_5     = s.rating_5
+FROM (SELECT employee_id,
+             COUNT(*)                             AS review_count,
+             SUM(rating)                          AS rating_sum,
+             COUNT(*) FILTER (WHERE rating = 1)   AS rating_1,
+             COUNT(*) FILTER (WHERE rating = 2)   AS rating_2,
+             COUNT(*) FILTER (WHERE rating = 3)   AS rating_3,
+             COUNT(*) FILTER (WHERE rating = 4)   AS rating_4,
+             COUNT(*) FILTER (WHERE rating = 5)   AS rating_5
+      FROM reviews
+      GROUP BY employee_id) s
+WHERE e.id = s.employee_id;
+
+-- Представление читает готовые агрегаты вместо двух коррелированных подзапросов на строку.
+-- Типы колонок прежние (COUNT - bigint, AVG - numeric), поэтому CREATE OR REPLACE допустим.
+CREATE OR REPLACE VIEW active_employees_view AS
+SELECT e.id,
+       e.name,
+       e.email,
+       e.phone_number,
+       e.telegram,
+       e.position,
+       e.department,
+       e.photo_path,
+       e.created_at,
+       e.updated_at,
+       e.active,
+       e.review_count::BIGINT                                      as review_count,
+       e.rating_sum::NUMERIC / NULLIF(e.review_count, 0)           as avg_rating
+FROM employees e
+WHERE e.deleted = false
+  AND e.active = true;
@@ -0,0 +1,7 @@
+-- Пулы идентификаторов для Hibernate (allocationSize = Employee.ID_ALLOCATION_SIZE).
+-- Колонки остаются BIGSERIAL: DEFAULT nextval работает для вставок из SQL, каждая такая вставка
+-- просто занимает целый блок. Следующий nextval вернет last_value + 50, поэтому блоки,
+-- которые Hibernate выдает после миграции, не пересекаются с уже существующими id.
+ALTER SEQUENCE employees_id_seq INCREMENT BY 50;
+ALTER SEQUENCE educations_id_seq INCREMENT BY 50;
+ALTER SEQUENCE reviews_id_seq INCREMENT BY 50;
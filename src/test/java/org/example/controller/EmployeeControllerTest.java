@@ -2,6 +2,9 @@ package org.example.controller;
 
 import org.example.model.Employee;
 import org.example.service.EmployeeService;
+import org.example.service.PhotoCatalog;
+import org.example.service.PhotoStorage;
+import org.example.service.ThumbnailService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -27,6 +30,15 @@ class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private PhotoCatalog photoCatalog;
+
+    @MockBean
+    private PhotoStorage photoStorage;
+
+    @MockBean
+    private ThumbnailService thumbnailService;
+
     @Test
     void listEmployees() throws Exception {
         Employee mockEmployee = Employee.builder()
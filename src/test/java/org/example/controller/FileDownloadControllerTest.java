@@ -0,0 +1,89 @@
+package org.example.controller;
+
+import org.example.controller.restcontroller.FileDownloadController;
+import org.example.service.FileService;
+import org.example.service.PhotoCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class FileDownloadControllerTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @TempDir
+    Path directory;
+
+    private PhotoCatalog photoCatalog;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(directory.resolve("photo.jpg"), CONTENT, StandardCharsets.UTF_8);
+        photoCatalog = new PhotoCatalog(directory.toString());
+        photoCatalog.start();
+        FileService fileService = new FileService(directory.resolve("exports").toString(), Duration.ofDays(1));
+        mockMvc = MockMvcBuilders.standaloneSetup(new FileDownloadController(photoCatalog, fileService)).build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        photoCatalog.stop();
+    }
+
+    @Test
+    void wholeFileAdvertisesRanges() throws Exception {
+        mockMvc.perform(get("/api/downloads/photos/photo.jpg"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void rangeReturnsPartialContent() throws Exception {
+        mockMvc.perform(get("/api/downloads/photos/photo.jpg").header(HttpHeaders.RANGE, "bytes=5-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/20"))
+                .andExpect(content().string("56789"));
+
+        mockMvc.perform(get("/api/downloads/photos/photo.jpg").header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("hij"));
+    }
+
+    @Test
+    void staleIfRangeReturnsWholeFile() throws Exception {
+        mockMvc.perform(get("/api/downloads/photos/photo.jpg")
+                        .header(HttpHeaders.RANGE, "bytes=5-9")
+                        .header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void unsatisfiableRangeIsRejected() throws Exception {
+        mockMvc.perform(get("/api/downloads/photos/photo.jpg").header(HttpHeaders.RANGE, "bytes=100-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+    }
+
+    @Test
+    void unknownFilesAreNotFound() throws Exception {
+        mockMvc.perform(get("/api/downloads/photos/missing.jpg")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/downloads/exports/photo.jpg")).andExpect(status().isNotFound());
+    }
+}
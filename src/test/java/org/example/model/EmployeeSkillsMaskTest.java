@@ -0,0 +1,29 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeSkillsMaskTest {
+
+    @Test
+    void maskFollowsSkillChanges() {
+        Employee employee = new Employee();
+
+        employee.setSkills(new HashSet<>(Set.of(Skills.JAVA, Skills.DOCKER)));
+        assertEquals(Skills.JAVA.bit() | Skills.DOCKER.bit(), employee.getSkillsMask());
+
+        employee.addSkill(Skills.SPRING);
+        employee.removeSkill(Skills.JAVA);
+        assertEquals(Skills.maskOf(employee.getSkills()), employee.getSkillsMask());
+        assertEquals(Skills.SPRING.bit() | Skills.DOCKER.bit(), employee.getSkillsMask());
+    }
+
+    @Test
+    void allSkillsFitIntoMask() {
+        assertTrue(Skills.values().length <= Long.SIZE);
+    }
+}
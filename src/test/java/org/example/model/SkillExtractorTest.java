@@ -0,0 +1,33 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillExtractorTest {
+
+    private final SkillExtractor extractor = SkillExtractor.getInstance();
+
+    @Test
+    void findsDisplayNamesAndAliasesInFreeText() {
+        Set<Skills> skills = extractor.extract(
+                "Опыт: Spring Boot, Docker, k8s; PostgreSQL/MySQL", null, "Немного Node.js");
+
+        assertEquals(Set.of(Skills.SPRING_BOOT, Skills.DOCKER, Skills.KUBERNETES,
+                Skills.POSTGRESQL, Skills.MYSQL, Skills.NODE_JS), skills);
+    }
+
+    @Test
+    void matchesWholeWordsOnly() {
+        assertEquals(Set.of(Skills.JAVASCRIPT), extractor.extract("JavaScript"));
+        assertTrue(extractor.extract("gitignore, pandasql").isEmpty());
+    }
+
+    @Test
+    void longestMatchWins() {
+        assertEquals(Set.of(Skills.SPRING_BOOT), extractor.extract("spring-boot"));
+        assertEquals(Set.of(Skills.GITHUB_ACTIONS), extractor.extract("GitHub Actions"));
+    }
+}
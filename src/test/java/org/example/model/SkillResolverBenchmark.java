@@ -0,0 +1,95 @@
+package org.example.model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение {@link SkillResolver} с прежней реализацией Skills.fromString (без отладочного вывода).
+ * Запуск: mvn test-compile, затем main() этого класса из IDE
+ * (профиль -prof gc показывает выделение памяти на вызов).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SkillResolverBenchmark {
+
+    // Типичные значения из фильтров и форм: имя константы, название, синоним, неизвестный навык
+    private final String[] inputs = {"JAVA", "Spring Boot", "node.js", "postgres", "k8s", "unknown skill"};
+
+    @Benchmark
+    public void resolver(Blackhole blackhole) {
+        SkillResolver resolver = SkillResolver.getInstance();
+        for (String input : inputs) {
+            blackhole.consume(resolver.resolve(input));
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        for (String input : inputs) {
+            blackhole.consume(legacyFromString(input));
+        }
+    }
+
+    @Benchmark
+    public void suggest(Blackhole blackhole) {
+        blackhole.consume(SkillResolver.getInstance().suggest("sp", 10));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SkillResolverBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+    // Прежний алгоритм: valueOf с исключениями, два линейных прохода и Map.ofEntries на каждый вызов
+    private static Skills legacyFromString(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmedValue = value.trim();
+        try {
+            return Skills.valueOf(trimmedValue.toUpperCase());
+        } catch (IllegalArgumentException ignored) {
+        }
+        String normalized = trimmedValue.toUpperCase()
+                .replace(" ", "_")
+                .replace(".", "")
+                .replace("-", "_")
+                .replace("__", "_")
+                .trim();
+        try {
+            return Skills.valueOf(normalized);
+        } catch (IllegalArgumentException ignored) {
+        }
+        for (Skills skill : Skills.values()) {
+            if (skill.getDisplayName().equalsIgnoreCase(trimmedValue)) {
+                return skill;
+            }
+        }
+        for (Skills skill : Skills.values()) {
+            if (skill.getDisplayName().toLowerCase().contains(trimmedValue.toLowerCase()) ||
+                    trimmedValue.toLowerCase().contains(skill.getDisplayName().toLowerCase())) {
+                return skill;
+            }
+        }
+        Map<String, Skills> specialCases = Map.ofEntries(
+                Map.entry("postgres", Skills.POSTGRESQL),
+                Map.entry("springboot", Skills.SPRING_BOOT),
+                Map.entry("nodejs", Skills.NODE_JS),
+                Map.entry("intellij", Skills.INTELLIJ_IDEA)
+        );
+        return specialCases.get(trimmedValue.toLowerCase());
+    }
+}
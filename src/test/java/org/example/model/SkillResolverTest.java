@@ -0,0 +1,48 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillResolverTest {
+
+    private final SkillResolver resolver = SkillResolver.getInstance();
+
+    @Test
+    void resolvesConstantNamesDisplayNamesAndAliases() {
+        assertEquals(Skills.JAVA, resolver.resolve("JAVA"));
+        assertEquals(Skills.JAVA, resolver.resolve(" java "));
+        assertEquals(Skills.NODE_JS, resolver.resolve("Node.js"));
+        assertEquals(Skills.NODE_JS, resolver.resolve("node js"));
+        assertEquals(Skills.SPRING_BOOT, resolver.resolve("spring-boot"));
+        assertEquals(Skills.SPRING, resolver.resolve("Spring Framework"));
+        assertEquals(Skills.KUBERNETES, resolver.resolve("k8s"));
+        assertEquals(Skills.POSTGRESQL, resolver.resolve("postgres"));
+    }
+
+    @Test
+    void fallsBackToContainmentLikeBefore() {
+        assertEquals(Skills.INTELLIJ_IDEA, resolver.resolve("IntelliJ IDEA Ultimate"));
+        assertEquals(Skills.GITHUB_ACTIONS, resolver.resolve("github act"));
+    }
+
+    @Test
+    void unknownOrBlankValuesResolveToNull() {
+        assertNull(resolver.resolve(null));
+        assertNull(resolver.resolve("  "));
+        assertNull(resolver.resolve("qqqq"));
+        assertNull(Skills.fromString("qqqq"));
+    }
+
+    @Test
+    void suggestionsAreRankedByPrefix() {
+        List<Skills> suggestions = resolver.suggest("sp", 3);
+
+        assertEquals(List.of(Skills.SPRING_BOOT, Skills.SPRING, Skills.APACHE_SPARK), suggestions);
+        assertEquals(List.of(Skills.KUBERNETES), resolver.suggest("k8", 5));
+        assertTrue(resolver.suggest("boot", 5).contains(Skills.SPRING_BOOT));
+        assertTrue(resolver.suggest("", 5).isEmpty());
+    }
+}
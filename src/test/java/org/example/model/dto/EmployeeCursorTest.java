@@ -0,0 +1,28 @@
+package org.example.model.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        EmployeeCursor cursor = new EmployeeCursor("Иван: Петров", 42L);
+
+        EmployeeCursor decoded = EmployeeCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void blankTokenStartsFromBeginning() {
+        assertEquals(EmployeeCursor.START, EmployeeCursor.decode(null));
+        assertEquals(EmployeeCursor.START, EmployeeCursor.decode(""));
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> EmployeeCursor.decode("not-a-cursor"));
+    }
+}
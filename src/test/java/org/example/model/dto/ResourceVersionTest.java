@@ -0,0 +1,37 @@
+package org.example.model.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceVersionTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123456000);
+
+    @Test
+    void etagIsStrongAndStable() {
+        String etag = ResourceVersion.of(UPDATED_AT).etag("employee", 1L);
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, ResourceVersion.of(UPDATED_AT).etag("employee", 1L));
+    }
+
+    @Test
+    void etagDependsOnVersionAndRepresentation() {
+        String etag = new ResourceVersion(UPDATED_AT, 10).etag("list", 0, 10);
+
+        assertNotEquals(etag, new ResourceVersion(UPDATED_AT.plusNanos(1000), 10).etag("list", 0, 10));
+        assertNotEquals(etag, new ResourceVersion(UPDATED_AT, 9).etag("list", 0, 10));
+        assertNotEquals(etag, new ResourceVersion(UPDATED_AT, 10).etag("list", 1, 10));
+        assertNotEquals(ResourceVersion.of(UPDATED_AT).etag("employee", 1L),
+                ResourceVersion.of(UPDATED_AT).etag("quick-view", 1L));
+    }
+
+    @Test
+    void unknownLastModifiedIsNotSent() {
+        assertEquals(-1, ResourceVersion.EMPTY.lastModifiedMillis());
+        assertTrue(ResourceVersion.of(UPDATED_AT).lastModifiedMillis() > 0);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.PostgresContainerTest;
+import org.example.model.Education;
+import org.example.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EducationRepositoryTest extends PostgresContainerTest {
+
+    @Autowired
+    private EducationRepository educationRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        employee = employeeRepository.save(Employee.builder()
+                .name("Anna")
+                .email("anna@example.com")
+                .build());
+    }
+
+    @Test
+    void repositoriesShareOneDataSourceAndEntityManagerFactory() {
+        // Замер времени старта и размера пула заменен проверкой: второго пула и метамодели нет
+        assertEquals(1, context.getBeansOfType(DataSource.class).size());
+        assertEquals(1, context.getBeansOfType(EntityManagerFactory.class).size());
+    }
+
+    @Test
+    void educationsAreSavedInCallerTransactionAndReadInYearOrder() {
+        educationRepository.saveAll(List.of(
+                education("МФТИ", 2014, 2016),
+                education("МГУ", 2010, 2014)));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Незакоммиченные строки видны: репозиторий работает в транзакции теста, а не в своей сессии
+        assertEquals(List.of("МГУ", "МФТИ"), educationRepository.findByEmployeeId(employee.getId()).stream()
+                .map(Education::getUniversity).toList());
+    }
+
+    @Test
+    void deletedEmployeeEducationsAreVisibleOnlyToAdminQuery() {
+        educationRepository.save(education("МГУ", 2010, 2014));
+        employeeRepository.softDelete(employee.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(educationRepository.findByEmployeeId(employee.getId()).isEmpty());
+        assertEquals(1, educationRepository.findByEmployeeIdIncludingDeleted(employee.getId()).size());
+    }
+
+    @Test
+    void deleteByEmployeeIdRemovesAllRowsWithOneStatement() {
+        educationRepository.saveAll(List.of(
+                education("МГУ", 2010, 2014),
+                education("МФТИ", 2014, 2016)));
+        entityManager.flush();
+
+        assertEquals(2, educationRepository.deleteByEmployeeId(employee.getId()));
+        entityManager.clear();
+        assertTrue(educationRepository.findByEmployeeIdIncludingDeleted(employee.getId()).isEmpty());
+    }
+
+    private Education education(String university, int yearStart, int yearEnd) {
+        return Education.builder()
+                .university(university)
+                .degree("Бакалавр")
+                .yearStart(yearStart)
+                .yearEnd(yearEnd)
+                .employee(employee)
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.PostgresContainerTest;
+import org.example.model.Education;
+import org.example.model.Employee;
+import org.example.model.Skills;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Массовое создание: id берутся из пула последовательности, INSERT уходят пачками JDBC.
+ * С IDENTITY каждый INSERT сотрудника и образования был отдельным обращением к БД (здесь - 240).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EmployeeBatchInsertTest extends PostgresContainerTest {
+
+    private static final int EMPLOYEES = 120;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkCreateUsesOneRoundTripPerBatch() {
+        long before = employeeRepository.count();
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = Employee.builder()
+                    .name("Employee " + i)
+                    .email("employee" + i + "@example.com")
+                    .skills(Set.of(Skills.JAVA))
+                    .build();
+            employee.addEducation(Education.builder().university("МГУ").degree("Бакалавр")
+                    .yearStart(2010).yearEnd(2014).build());
+            employees.add(employee);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        employeeRepository.saveAll(employees);
+        entityManager.flush();
+
+        // По 3 пачки на employees, employee_skills и educations плюс nextval на каждый блок из 50 id (~15)
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 20, "Ожидались пакетные вставки, выполнено запросов: " + statements);
+        assertEquals(EMPLOYEES * 2, statistics.getEntityInsertCount());
+
+        entityManager.clear();
+        assertEquals(before + EMPLOYEES, employeeRepository.count());
+        assertEquals(EMPLOYEES, employees.stream().map(Employee::getId).distinct().count());
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.PostgresContainerTest;
+import org.example.model.Education;
+import org.example.model.Employee;
+import org.example.model.Review;
+import org.example.model.Skills;
+import org.example.model.dto.EmployeeDetailView;
+import org.example.model.dto.EmployeeListRow;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Планы загрузки эндпоинтов (EmployeeService): фиксированное число запросов на загрузку
+ * и ни одного при сериализации. Перед сериализацией контекст очищается, как после конца
+ * транзакции без open-in-view, - обращение к незагруженной ленивой коллекции
+ * бросает LazyInitializationException и тест падает.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EmployeeFetchPlanTest extends PostgresContainerTest {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeRepositoryDto employeeRepositoryDto;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long id;
+
+    @BeforeEach
+    void setUp() {
+        Employee employee = Employee.builder()
+                .name("Anna")
+                .email("anna@example.com")
+                .skills(Set.of(Skills.JAVA, Skills.SPRING))
+                .build();
+        employee.addEducation(Education.builder().university("МГУ").degree("Бакалавр")
+                .yearStart(2010).yearEnd(2014).build());
+        employee.addEducation(Education.builder().university("МФТИ").degree("Магистр")
+                .yearStart(2014).yearEnd(2016).build());
+        employee.addReview(Review.builder().rating(5).comment("Отлично").build());
+        id = employeeRepository.save(employee).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void detailIsOneStatement() throws JsonProcessingException {
+        Employee employee = load(1, () -> employeeRepository.findDetailById(id).orElseThrow());
+
+        String json = serializeWithoutQueries(employee);
+        assertTrue(json.contains("МФТИ"));
+        assertFalse(json.contains("Отлично"));
+    }
+
+    @Test
+    void detailViewWithReviewsIsOneStatement() throws JsonProcessingException {
+        employeeRepository.addRating(id, 5);
+        entityManager.clear();
+
+        EmployeeDetailView view = load(1, () -> employeeRepository.findDetailView(id, 0, 10).orElseThrow());
+
+        assertEquals(Set.of(Skills.JAVA, Skills.SPRING), view.getSkills());
+        assertEquals(List.of("МГУ", "МФТИ"),
+                view.getEducations().stream().map(EmployeeDetailView.EducationItem::getUniversity).toList());
+        assertEquals(1, view.getReviews().size());
+        assertEquals("Отлично", view.getReviews().get(0).getComment());
+        assertNotNull(view.getReviews().get(0).getCreatedAt());
+        assertEquals(1, view.getRatingStats().getReviewCount());
+        assertEquals(1, view.getReviewTotalPages());
+        assertTrue(employeeRepository.findDetailView(id, 1, 10).orElseThrow().getReviews().isEmpty());
+        serializeWithoutQueries(view);
+    }
+
+    @Test
+    void quickViewIsOneStatement() throws JsonProcessingException {
+        EmployeeListRow row = load(1, () -> employeeRepository.findListRow(id).orElseThrow());
+
+        serializeWithoutQueries(row);
+    }
+
+    @Test
+    void listRowsAreIdQueryAndRowQuery() throws JsonProcessingException {
+        // Страница неполная - COUNT не выполняется
+        List<EmployeeListRow> rows = load(2, () -> employeeRepository.findListRowsByIdInOrder(
+                employeeRepository.findIds(Specification.where(null), PageRequest.of(0, 10)).getContent()));
+
+        assertEquals(1, rows.size());
+        serializeWithoutQueries(rows);
+    }
+
+    @Test
+    void exportIsOneStatement() throws JsonProcessingException {
+        serializeWithoutQueries(load(1, () -> employeeRepositoryDto.findDtoById(id).orElseThrow()));
+    }
+
+    @Test
+    void lazyCollectionOutsideOfPlanFailsSerialization() {
+        Employee employee = employeeRepository.findById(id).orElseThrow();
+        entityManager.clear();
+
+        assertThrows(JsonProcessingException.class, () -> objectMapper.writeValueAsString(employee));
+    }
+
+    private <T> T load(int expectedStatements, Supplier<T> query) {
+        Statistics statistics = statistics();
+        statistics.clear();
+        T result = query.get();
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount());
+        return result;
+    }
+
+    private String serializeWithoutQueries(Object value) throws JsonProcessingException {
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+        String json = objectMapper.writeValueAsString(value);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        return json;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.repository;
+
+import org.example.PostgresContainerTest;
+import org.example.model.Employee;
+import org.example.model.Skills;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Планы запросов фильтров списка (EmployeeSpecifications). Проверяется общий (generic) план
+ * подготовленного запроса - тот, что PostgreSQL кэширует и использует для любых значений
+ * одной комбинации фильтров.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "org.example.repository.EmployeeFilterPlanTest$SqlCapture")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EmployeeFilterPlanTest extends PostgresContainerTest {
+
+    // SQL, отправленный Hibernate; подключается свойством statement_inspector
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // 200 отделов и 150 должностей на 20 000 сотрудников: по одному значению - около сотни строк
+        jdbcTemplate.update("INSERT INTO employees (name, email, department, position, active, deleted, skills_mask) " +
+                "SELECT 'Сотрудник ' || g, 'plan' || g || '@example.com', 'Отдел ' || (g % 200), " +
+                "'Должность ' || (g % 150), g % 10 <> 0, g % 50 = 0, g % 64 " +
+                "FROM generate_series(1, 20000) g");
+        jdbcTemplate.execute("ANALYZE employees");
+        // Сразу общий план: так проверяется план, который переиспользуется для всех значений
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+    }
+
+    @Test
+    void departmentFilterUsesDepartmentIndex() {
+        String plan = plan(filter(List.of("Отдел 1", "Отдел 2"), null, null, null));
+
+        assertTrue(plan.contains("idx_employees_department"), plan);
+    }
+
+    @Test
+    void positionFilterUsesPositionIndex() {
+        String plan = plan(filter(null, List.of("Должность 7"), null, null));
+
+        assertTrue(plan.contains("idx_employees_position"), plan);
+    }
+
+    @Test
+    void departmentAndPositionFilterUsesTheirIndexes() {
+        String plan = plan(filter(List.of("Отдел 1"), List.of("Должность 7", "Должность 8"), null, null));
+
+        assertTrue(plan.contains("idx_employees_department") || plan.contains("idx_employees_position"), plan);
+    }
+
+    @Test
+    void departmentWithSkillsAndActiveUsesDepartmentIndex() {
+        String plan = plan(filter(List.of("Отдел 3"), null, Set.of(Skills.JAVA, Skills.DOCKER), true));
+
+        assertTrue(plan.contains("idx_employees_department"), plan);
+    }
+
+    @Test
+    void sameFilterShapeIsOneStatement() {
+        String first = countSql(filter(List.of("Отдел 1", "Отдел 2", "Отдел 3"), null, Set.of(Skills.JAVA), true));
+        String second = countSql(filter(List.of("Отдел 4", "Отдел 5", "Отдел 6", "Отдел 7"), null,
+                Set.of(Skills.PYTHON, Skills.DOCKER), false));
+        String otherShape = countSql(filter(List.of("Отдел 1"), List.of("Должность 1"), null, null));
+
+        // Значения, включая маску навыков, - параметры; размер IN-списка дополняется до степени двойки
+        assertEquals(first, second);
+        assertNotEquals(first, otherShape);
+    }
+
+    private static Specification<Employee> filter(List<String> departments, List<String> positions,
+                                                  Set<Skills> skills, Boolean active) {
+        return EmployeeSpecifications.withFilters(null, skills, departments, positions, active, false);
+    }
+
+    private String countSql(Specification<Employee> spec) {
+        SqlCapture.statements.clear();
+        employeeRepository.count(spec);
+        return SqlCapture.statements.stream()
+                .filter(sql -> sql.contains("count("))
+                .reduce((first, last) -> last)
+                .orElseThrow();
+    }
+
+    // Общий план запроса количества: подготовленный запрос выполняется через EXPLAIN EXECUTE,
+    // значения параметров на общий план не влияют
+    private String plan(Specification<Employee> spec) {
+        String sql = countSql(spec);
+        StringBuilder prepared = new StringBuilder();
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                prepared.append('$').append(++parameters);
+            } else {
+                prepared.append(c);
+            }
+        }
+        jdbcTemplate.execute("PREPARE filter_plan AS " + prepared);
+        try {
+            String arguments = IntStream.range(0, parameters).mapToObj(i -> "NULL").collect(Collectors.joining(", "));
+            return String.join("\n", jdbcTemplate.queryForList(
+                    "EXPLAIN EXECUTE filter_plan" + (parameters > 0 ? "(" + arguments + ")" : ""), String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE filter_plan");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.PostgresContainerTest;
+import org.example.model.Employee;
+import org.example.model.Skills;
+import org.example.model.dto.EmployeeListRow;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EmployeeListRowQueryTest extends PostgresContainerTest {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void rowsAreLoadedInRequestedOrderWithOneStatement() {
+        Employee withSkills = employeeRepository.save(Employee.builder()
+                .name("Anna")
+                .email("anna@example.com")
+                .resume("Длинное резюме")
+                .skills(Set.of(Skills.JAVA, Skills.SPRING))
+                .build());
+        Employee withoutSkills = employeeRepository.save(Employee.builder()
+                .name("Boris")
+                .email("boris@example.com")
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<EmployeeListRow> rows = employeeRepository.findListRowsByIdInOrder(
+                List.of(withoutSkills.getId(), -1L, withSkills.getId()));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(List.of(withoutSkills.getId(), withSkills.getId()),
+                rows.stream().map(EmployeeListRow::getId).toList());
+        assertTrue(rows.get(0).getSkills().isEmpty());
+        assertEquals(Set.of(Skills.JAVA, Skills.SPRING), rows.get(1).getSkills());
+        assertEquals("anna@example.com", rows.get(1).getEmail());
+        assertNotNull(rows.get(1).getCreatedAt());
+    }
+
+    @Test
+    void quickViewRowSkipsDeletedEmployees() {
+        Employee employee = employeeRepository.save(Employee.builder()
+                .name("Deleted")
+                .email("deleted@example.com")
+                .build());
+        entityManager.flush();
+        assertTrue(employeeRepository.findListRow(employee.getId()).isPresent());
+
+        employeeRepository.softDelete(employee.getId());
+        entityManager.clear();
+
+        assertTrue(employeeRepository.findListRow(employee.getId()).isEmpty());
+    }
+
+    @Test
+    void nameSearchTreatsLikeWildcardsAsText() {
+        employeeRepository.save(Employee.builder()
+                .name("Anna_Maria")
+                .email("anna.maria@example.com")
+                .build());
+        employeeRepository.save(Employee.builder()
+                .name("AnnaXMaria")
+                .email("anna.x@example.com")
+                .build());
+        employeeRepository.save(Employee.builder()
+                .name("Скидка 100%")
+                .email("percent@example.com")
+                .build());
+        entityManager.flush();
+
+        assertEquals(List.of("Anna_Maria"), employeeRepository.findByNameContainingAndDeletedFalse("a_m")
+                .stream().map(Employee::getName).toList());
+        assertEquals(1, employeeRepository.countByNameContainingAndDeletedFalse("0%"));
+        // '%' ищется как символ: находится только имя, где он есть
+        assertEquals(1, employeeRepository.countByNameContainingAndDeletedFalse("%"));
+        assertEquals(0, employeeRepository.countByNameContainingAndDeletedFalse("\\"));
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.PostgresContainerTest;
+import org.example.model.Employee;
+import org.example.model.RatingStats;
+import org.example.model.dto.EmployeeListRow;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EmployeeRatingStatsQueryTest extends PostgresContainerTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void ratingsForPageAreLoadedWithOneStatement() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Employee employee = employeeRepository.save(Employee.builder()
+                    .name("Employee " + i)
+                    .email("employee" + i + "@example.com")
+                    .build());
+            ids.add(employee.getId());
+        }
+        employeeRepository.addRating(ids.get(0), 5);
+        employeeRepository.addRating(ids.get(0), 3);
+        employeeRepository.addRating(ids.get(1), 1);
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<EmployeeListRow> rows = employeeRepository.findListRowsByIdInOrder(ids);
+
+        // Строки страницы и их рейтинги - один запрос
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(PAGE_SIZE, rows.size());
+
+        RatingStats first = rows.get(0).getRatingStats();
+        assertEquals(2, first.getReviewCount());
+        assertEquals(4.0, first.getAverage());
+        assertArrayEquals(new int[]{0, 0, 1, 0, 1}, first.getHistogram());
+        assertEquals(1, rows.get(1).getRatingStats().getHistogram()[0]);
+        assertFalse(rows.get(2).getRatingStats().hasReviews());
+    }
+}
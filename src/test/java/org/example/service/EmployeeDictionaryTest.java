@@ -0,0 +1,77 @@
+package org.example.service;
+
+import org.example.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeDictionaryTest {
+
+    private EmployeeDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        dictionary = new EmployeeDictionary();
+        dictionary.rebuild(List.of(
+                new Object[]{1L, "IT", "Developer"},
+                new Object[]{2L, "IT", "Tester"},
+                new Object[]{3L, "Sales", null}));
+    }
+
+    @Test
+    void rebuildCollectsSortedDistinctValues() {
+        assertEquals(List.of("IT", "Sales"), dictionary.getDepartments());
+        assertEquals(List.of("Developer", "Tester"), dictionary.getPositions());
+    }
+
+    @Test
+    void valueDisappearsWithLastEmployee() {
+        dictionary.update(employee(2L, "HR", "Developer"));
+
+        assertEquals(List.of("HR", "IT", "Sales"), dictionary.getDepartments());
+        assertEquals(List.of("Developer"), dictionary.getPositions());
+
+        dictionary.remove(3L);
+        assertEquals(List.of("HR", "IT"), dictionary.getDepartments());
+    }
+
+    @Test
+    void softDeletedAndRestoredEmployeesAreCounted() {
+        Employee sales = employee(3L, "Sales", null);
+        sales.softDelete();
+        dictionary.update(sales);
+        assertEquals(List.of("IT"), dictionary.getDepartments());
+
+        sales.restore();
+        dictionary.update(sales);
+        assertEquals(List.of("IT", "Sales"), dictionary.getDepartments());
+    }
+
+    @Test
+    void changesDuringSnapshotReadAreAppliedOverSnapshot() {
+        // Снимок прочитан до изменений: в нем 3 еще в Sales, а 2 не удален
+        dictionary.rebuild(() -> {
+            List<Object[]> snapshot = List.of(
+                    new Object[]{1L, "IT", "Developer"},
+                    new Object[]{2L, "IT", "Tester"},
+                    new Object[]{3L, "Sales", null});
+            dictionary.update(employee(3L, "HR", null));
+            dictionary.remove(2L);
+            return snapshot;
+        });
+
+        assertEquals(List.of("HR", "IT"), dictionary.getDepartments());
+        assertEquals(List.of("Developer"), dictionary.getPositions());
+    }
+
+    private static Employee employee(Long id, String department, String position) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setDepartment(department);
+        employee.setPosition(position);
+        return employee;
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.service;
+
+import jakarta.validation.Validation;
+import org.example.PostgresContainerTest;
+import org.example.model.Skills;
+import org.example.model.dto.ImportJobStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Импорт работает в своем потоке и своей транзакции, поэтому тест выполняется без транзакции,
+ * а сотрудники - из начальных данных V1__init_schema.sql.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmployeeImportServiceTest extends PostgresContainerTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final EmployeeService employeeService = mock(EmployeeService.class);
+
+    @Test
+    void csvIsUpsertedByEmailWithRowErrors() throws Exception {
+        // Порция из двух строк: проверка идет несколькими задачами, COPY - несколькими вызовами
+        EmployeeImportService service = new EmployeeImportService(jdbcTemplate, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), employeeService,
+                mock(FilterResultCache.class), mock(EntityCacheService.class), 2, 1, Duration.ofMinutes(5));
+        String csv = "name;email;position;skills\n" +
+                "Новый Сотрудник;new1@example.com;QA;Java, Docker\n" +
+                "Евушко Андрей;anonim@mail.ru;Senior Java Developer;Spring Boot\n" +
+                "Без почты;not-an-email;;\n" +
+                "Иван Удаленный;deleted@mail.ru;;\n" +
+                "Новый Сотрудник;new1@example.com;Lead;\n";
+
+        ImportJobStatus status = service.start(new MockMultipartFile("file", "employees.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8)));
+        status = awaitFinished(service, status.id());
+
+        assertEquals(ImportJobStatus.State.COMPLETED, status.state(), status.error());
+        assertEquals(5, status.rowsRead());
+        assertEquals(1, status.inserted());
+        assertEquals(1, status.updated());
+        assertEquals(1, status.failed());
+        assertEquals(2, status.skipped());
+        assertEquals(List.of(2L, 4L, 5L), status.errors().stream().map(ImportJobStatus.RowError::row).sorted().toList());
+
+        assertEquals("Lead", jdbcTemplate.queryForObject(
+                "SELECT position FROM employees WHERE email = 'new1@example.com'", String.class));
+        assertEquals("Senior Java Developer", jdbcTemplate.queryForObject(
+                "SELECT position FROM employees WHERE email = 'anonim@mail.ru'", String.class));
+        assertEquals(List.of(Skills.SPRING_BOOT.name()), jdbcTemplate.queryForList(
+                "SELECT s.skill FROM employee_skills s JOIN employees e ON e.id = s.employee_id " +
+                        "WHERE e.email = 'anonim@mail.ru'", String.class));
+        assertEquals(Skills.SPRING_BOOT.bit(), jdbcTemplate.queryForObject(
+                "SELECT skills_mask FROM employees WHERE email = 'anonim@mail.ru'", Long.class));
+        verify(employeeService).rebuildSkillIndex();
+    }
+
+    @Test
+    void cacheRefreshFailureKeepsCommittedImportCompleted() throws Exception {
+        doThrow(new IllegalStateException("index unavailable")).when(employeeService).rebuildSkillIndex();
+        EmployeeImportService service = new EmployeeImportService(jdbcTemplate, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), employeeService,
+                mock(FilterResultCache.class), mock(EntityCacheService.class), 2, 1, Duration.ofMinutes(5));
+        String csv = "name;email\nКэш Сотрудник;cache.refresh@example.com\n";
+
+        ImportJobStatus status = service.start(new MockMultipartFile("file", "employees.csv", "text/csv",
+                csv.getBytes(StandardCharsets.UTF_8)));
+        status = awaitFinished(service, status.id());
+
+        assertEquals(ImportJobStatus.State.COMPLETED, status.state());
+        assertEquals(1, status.inserted());
+        assertTrue(status.error().contains("индекс навыков"), status.error());
+        verify(employeeService).rebuildDictionaries();
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM employees WHERE email = 'cache.refresh@example.com'", Integer.class));
+    }
+
+    @Test
+    void unsupportedFileIsRejected() {
+        EmployeeImportService service = new EmployeeImportService(jdbcTemplate, transactionManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), employeeService,
+                mock(FilterResultCache.class), mock(EntityCacheService.class), 2, 1, Duration.ofMinutes(5));
+
+        assertThrows(IllegalArgumentException.class, () -> service.start(new MockMultipartFile(
+                "file", "employees.xls", "application/vnd.ms-excel", new byte[]{1})));
+    }
+
+    private static ImportJobStatus awaitFinished(EmployeeImportService service, String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        ImportJobStatus status = service.getStatus(id).orElseThrow();
+        while (status.finishedAt() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            status = service.getStatus(id).orElseThrow();
+        }
+        return status;
+    }
+}
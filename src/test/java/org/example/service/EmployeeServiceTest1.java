@@ -1,6 +1,9 @@
 package org.example.service;
 
-
+import org.example.model.Education;
+import org.example.model.Employee;
+import org.example.model.RatingStats;
+import org.example.model.Review;
 import org.example.repository.EducationRepository;
 import org.example.repository.EmployeeRepository;
 import org.example.repository.ReviewRepository;
@@ -9,9 +12,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class EmployeeServiceTest1 {
@@ -25,6 +35,18 @@ class EmployeeServiceTest1 {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private SkillIndex skillIndex;
+
+    @Mock
+    private FilterResultCache filterResultCache;
+
+    @Mock
+    private EmployeeDictionary employeeDictionary;
+
+    @Mock
+    private EntityCacheService entityCacheService;
+
 
     private final int OFFSET = 1;
     private final int LIMIT = 10;
@@ -33,7 +55,7 @@ class EmployeeServiceTest1 {
 
     /*@Test
     void findAll() {
-        EmployeeService employeeService = new EmployeeService(employeeRepository, educationRepository, reviewRepository);
+        EmployeeService employeeService = new EmployeeService(employeeRepository, educationRepository, reviewRepository, skillIndex, filterResultCache, employeeDictionary, entityCacheService);
         List<Employee> employees = List.of(new Employee(), new Employee());
         when(employeeRepository.findAllById()).thenReturn(employees);
         List<Employee> resaut = employeeService.findAll(OFFSET, LIMIT);
@@ -43,10 +65,58 @@ class EmployeeServiceTest1 {
 
     @Test
     void calculateAverageRating() {
-        EmployeeService employeeService = new EmployeeService(employeeRepository, educationRepository, reviewRepository);
-        when(reviewRepository.calculateAverageRating(EMPLOYEEID)).thenReturn(RATING);
+        EmployeeService employeeService = new EmployeeService(employeeRepository, educationRepository, reviewRepository, skillIndex, filterResultCache, employeeDictionary, entityCacheService);
+        when(employeeRepository.findRatingStatsById(EMPLOYEEID))
+                .thenReturn(Optional.of(new RatingStats(2, 2, 2, 0, 0, 0, 0)));
         double result = employeeService.calculateAverageRating(EMPLOYEEID);
         assertEquals(RATING, result);
     }
 
-}
\ No newline at end of file
+    @Test
+    void saveReviewUpdatesRatingStats() {
+        EmployeeService employeeService = new EmployeeService(employeeRepository, educationRepository, reviewRepository, skillIndex, filterResultCache, employeeDictionary, entityCacheService);
+        Employee employee = Employee.builder().id(EMPLOYEEID).build();
+        Review review = Review.builder().employee(employee).rating(4).build();
+        when(employeeRepository.findById(EMPLOYEEID)).thenReturn(Optional.of(employee));
+        when(reviewRepository.save(review)).thenReturn(review);
+
+        employeeService.saveReview(review);
+
+        verify(employeeRepository).addRating(EMPLOYEEID, 4);
+        verify(entityCacheService).evictEmployee(EMPLOYEEID);
+    }
+
+    @Test
+    void saveReviewRejectsRatingOutOfRange() {
+        EmployeeService employeeService = new EmployeeService(employeeRepository, educationRepository, reviewRepository, skillIndex, filterResultCache, employeeDictionary, entityCacheService);
+        Employee employee = Employee.builder().id(EMPLOYEEID).build();
+        when(employeeRepository.findById(EMPLOYEEID)).thenReturn(Optional.of(employee));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> employeeService.saveReview(Review.builder().employee(employee).rating(6).build()));
+        verify(employeeRepository, never()).addRating(anyLong(), anyInt());
+    }
+
+    @Test
+    void updateWithPhotoBumpsVersionWhenOnlyEducationsChange() {
+        EmployeeService employeeService = new EmployeeService(employeeRepository, educationRepository, reviewRepository, skillIndex, filterResultCache, employeeDictionary, entityCacheService);
+        LocalDateTime version = LocalDateTime.of(2020, 1, 1, 0, 0);
+        Employee employee = Employee.builder().id(EMPLOYEEID).name("Anna").updatedAt(version)
+                .educations(new ArrayList<>(List.of(education(10L, "Бакалавр")))).build();
+        when(employeeRepository.findDetailById(EMPLOYEEID)).thenReturn(Optional.of(employee));
+        when(employeeRepository.save(employee)).thenReturn(employee);
+
+        employeeService.updateWithPhoto(EMPLOYEEID, Employee.builder().name("Anna")
+                .educations(List.of(education(10L, "Бакалавр"))).build(), null);
+        assertEquals(version, employee.getUpdatedAt());
+
+        employeeService.updateWithPhoto(EMPLOYEEID, Employee.builder().name("Anna")
+                .educations(List.of(education(10L, "Магистр"))).build(), null);
+        assertEquals("Магистр", employee.getEducations().get(0).getDegree());
+        assertTrue(employee.getUpdatedAt().isAfter(version));
+    }
+
+    private static Education education(Long id, String degree) {
+        return Education.builder().id(id).university("МГУ").degree(degree).yearStart(2010).yearEnd(2014).build();
+    }
+}
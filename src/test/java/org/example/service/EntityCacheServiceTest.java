@@ -0,0 +1,60 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.config.HibernateCacheConfig;
+import org.example.model.dto.CacheRegionStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class EntityCacheServiceTest {
+
+    private CacheManager cacheManager;
+    private EntityCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new HibernateCacheConfig().hibernateCacheManager(100, 10, Duration.ofMinutes(5));
+        service = new EntityCacheService(cacheManager, mock(EntityManagerFactory.class), new FilterResultCache(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    @Test
+    void allRegionsAreCreated() {
+        for (String region : HibernateCacheConfig.REGIONS) {
+            assertNotNull(cacheManager.getCache(region), region);
+        }
+    }
+
+    @Test
+    void statsCountHitsAndMisses() {
+        Cache<Object, Object> employees = cacheManager.getCache(HibernateCacheConfig.EMPLOYEE_REGION);
+        employees.get(1L);
+        employees.put(1L, "employee");
+        employees.get(1L);
+
+        List<CacheRegionStats> stats = service.getStats();
+        CacheRegionStats employeeStats = stats.stream()
+                .filter(region -> region.region().equals(HibernateCacheConfig.EMPLOYEE_REGION))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(HibernateCacheConfig.REGIONS.size() + 1, stats.size());
+        assertEquals(1, employeeStats.size());
+        assertEquals(1, employeeStats.hits());
+        assertEquals(1, employeeStats.misses());
+        assertEquals(0.5, employeeStats.hitRate());
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilterResultCacheTest {
+
+    private static final FilterResultCache.Entry ENTRY =
+            new FilterResultCache.Entry(List.of(3L, 1L), 2, 2);
+
+    private FilterResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new FilterResultCache(100);
+    }
+
+    @Test
+    void equivalentFiltersShareKey() {
+        FilterResultCache.Key first = FilterResultCache.Key.of("list", "Ivan", 0L,
+                List.of("Sales", "IT"), null, true, PageRequest.of(0, 10));
+        FilterResultCache.Key second = FilterResultCache.Key.of("list", "ivan", 0L,
+                List.of("IT", "Sales", "IT"), List.of(), true, PageRequest.of(0, 10));
+
+        assertEquals(first, second);
+        assertNotEquals(first, FilterResultCache.Key.of("list", "ivan", 0L,
+                List.of("IT", "Sales"), null, true, PageRequest.of(1, 10)));
+    }
+
+    @Test
+    void invalidateHidesOlderResults() {
+        FilterResultCache.Key key = FilterResultCache.Key.of("list", null, 0L, null, null, null, PageRequest.of(0, 10));
+        long version = cache.version();
+        cache.put(key, version, ENTRY);
+        assertEquals(ENTRY, cache.get(key, cache.version()));
+
+        cache.invalidate();
+
+        assertNull(cache.get(key, cache.version()));
+    }
+
+    @Test
+    void resultReadBeforeChangeIsNotStored() {
+        FilterResultCache.Key key = FilterResultCache.Key.of("api", null, 0L, null, null, null, PageRequest.of(0, 10));
+        long version = cache.version();
+
+        // Изменение закоммичено, пока выполнялся запрос
+        cache.invalidate();
+        cache.put(key, version, ENTRY);
+
+        assertNull(cache.get(key, cache.version()));
+    }
+}
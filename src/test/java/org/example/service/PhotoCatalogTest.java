@@ -0,0 +1,70 @@
+package org.example.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoCatalogTest {
+
+    @TempDir
+    Path directory;
+
+    private PhotoCatalog catalog;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        writePng(directory.resolve("existing.png"), 40, 30);
+        catalog = new PhotoCatalog(directory.toString());
+        catalog.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        catalog.stop();
+    }
+
+    @Test
+    void startupScanReadsMetadata() {
+        PhotoCatalog.PhotoInfo info = catalog.find("/images/existing.png").orElseThrow();
+
+        assertEquals(40, info.width());
+        assertEquals(30, info.height());
+        assertEquals(64, info.sha256().length());
+        assertTrue(info.size() > 0);
+    }
+
+    @Test
+    void resolveFallsBackForMissingPhoto() {
+        assertEquals("/images/existing.png", catalog.resolve("/images/existing.png", "/images/default.jpg"));
+        assertEquals("/images/default.jpg", catalog.resolve("/images/missing.png", "/images/default.jpg"));
+        assertEquals("/images/default.jpg", catalog.resolve(null, "/images/default.jpg"));
+        assertFalse(catalog.exists("/images/../existing.png"));
+    }
+
+    @Test
+    void registerAndRescanFollowDisk() throws IOException {
+        Path added = directory.resolve("added.png");
+        writePng(added, 10, 10);
+        catalog.register(added);
+        assertTrue(catalog.exists("/images/added.png"));
+
+        Files.delete(directory.resolve("existing.png"));
+        catalog.rescan();
+
+        assertFalse(catalog.exists("/images/existing.png"));
+        assertTrue(catalog.exists("added.png"));
+    }
+
+    private static void writePng(Path file, int width, int height) throws IOException {
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+    }
+}
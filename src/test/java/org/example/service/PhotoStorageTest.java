@@ -0,0 +1,118 @@
+package org.example.service;
+
+import org.example.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PhotoStorageTest {
+
+    @TempDir
+    Path directory;
+
+    private PhotoCatalog catalog;
+    private EmployeeRepository employeeRepository;
+    private PhotoStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        catalog = new PhotoCatalog(directory.toString());
+        catalog.start();
+        employeeRepository = mock(EmployeeRepository.class);
+        storage = new PhotoStorage(catalog, employeeRepository, mock(ThumbnailService.class),
+                Duration.ofHours(1), DataSize.ofKilobytes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        catalog.stop();
+    }
+
+    @Test
+    void sameContentIsStoredOnce() throws IOException {
+        String first = storage.store(photo("a.jpg", "same bytes"));
+        String second = storage.store(photo("b.jpg", "same bytes"));
+
+        assertEquals(first, second);
+        assertTrue(PhotoStorage.isBlob(first));
+        assertTrue(catalog.exists(first));
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void formatIsDetectedBySignatureNotDeclaredType() throws IOException {
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+        String photoPath = storage.store(new MockMultipartFile("photo", "photo.jpg", "image/jpeg", png));
+
+        assertTrue(photoPath.endsWith(".png"));
+        assertThrows(IllegalArgumentException.class,
+                () -> storage.store(new MockMultipartFile("photo", "photo.jpg", "image/jpeg", "<html>".getBytes())));
+    }
+
+    @Test
+    void photoPathDependsOnFileOrigin() {
+        String blob = "a".repeat(64) + ".jpg";
+
+        assertEquals("/photos/" + blob, PhotoStorage.photoPath(blob));
+        assertEquals("/images/legacy.jpg", PhotoStorage.photoPath("legacy.jpg"));
+    }
+
+    @Test
+    void sizeLimitIsCheckedOnActualBytes() {
+        byte[] large = new byte[2048];
+        large[0] = (byte) 0xFF;
+        large[1] = (byte) 0xD8;
+        large[2] = (byte) 0xFF;
+
+        assertThrows(IllegalArgumentException.class,
+                () -> storage.store(new MockMultipartFile("photo", "photo.jpg", "image/jpeg", large)));
+        assertTrue(catalog.getAll().isEmpty());
+    }
+
+    @Test
+    void garbageCollectionKeepsReferencedAndFreshPhotos() throws IOException {
+        String referenced = storage.store(photo("a.jpg", "referenced"));
+        String orphan = storage.store(photo("b.jpg", "orphan"));
+        String fresh = storage.store(photo("c.jpg", "fresh"));
+        age(referenced);
+        age(orphan);
+        List<Object[]> references = List.<Object[]>of(new Object[]{referenced, 2L});
+        when(employeeRepository.countPhotoReferences()).thenReturn(references);
+
+        assertEquals(1, storage.collectGarbage());
+
+        assertTrue(catalog.exists(referenced));
+        assertTrue(catalog.exists(fresh));
+        assertFalse(catalog.exists(orphan));
+        assertFalse(Files.exists(directory.resolve(orphan.substring(PhotoCatalog.BLOB_URL_PREFIX.length()))));
+    }
+
+    private void age(String photoPath) throws IOException {
+        Path file = directory.resolve(photoPath.substring(PhotoCatalog.BLOB_URL_PREFIX.length()));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - Duration.ofDays(1).toMillis()));
+        catalog.register(file);
+    }
+
+    // Сигнатура JPEG и произвольное содержимое
+    private static MockMultipartFile photo(String name, String content) {
+        byte[] bytes = ("\u00FF\u00D8\u00FF" + content).getBytes(StandardCharsets.ISO_8859_1);
+        return new MockMultipartFile("photo", name, "application/octet-stream", bytes);
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.service;
+
+import org.example.model.Employee;
+import org.example.model.Skills;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SkillIndexTest {
+
+    private SkillIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SkillIndex();
+        index.rebuild(Map.of(
+                1L, Skills.maskOf(List.of(Skills.JAVA, Skills.SPRING)),
+                2L, Skills.maskOf(List.of(Skills.JAVA)),
+                3L, Skills.maskOf(List.of(Skills.SPRING, Skills.DOCKER)),
+                4L, 0L));
+    }
+
+    @Test
+    void withAllIntersectsPostings() {
+        assertEquals(List.of(1L), index.find(List.of(Skills.JAVA, Skills.SPRING), true, 10));
+        assertEquals(List.of(1L, 2L, 3L, 4L), index.find(List.of(), true, 10));
+    }
+
+    @Test
+    void withAnyUnitesPostings() {
+        assertEquals(List.of(1L, 2L, 3L), index.find(List.of(Skills.JAVA, Skills.DOCKER), false, 10));
+        assertEquals(List.of(), index.find(List.of(), false, 10));
+    }
+
+    @Test
+    void countsAreLimitedToSelection() {
+        Map<Skills, Integer> counts = index.countBySkill(List.of(Skills.SPRING), true);
+
+        assertEquals(2, counts.get(Skills.SPRING));
+        assertEquals(1, counts.get(Skills.JAVA));
+        assertEquals(1, counts.get(Skills.DOCKER));
+        assertFalse(counts.containsKey(Skills.PYTHON));
+    }
+
+    @Test
+    void removedOrdinalsAreReusedAndOrderIsKept() {
+        index.remove(2L);
+        index.update(employee(5L, Skills.JAVA));
+        index.update(employee(6L, Skills.JAVA));
+
+        assertEquals(List.of(1L, 5L, 6L), index.find(List.of(Skills.JAVA), true, 10));
+        assertEquals(List.of(1L, 3L, 4L, 5L, 6L), index.find(List.of(), true, 10));
+        assertEquals(List.of(1L, 3L), index.find(List.of(), true, 2));
+    }
+
+    @Test
+    void updateReplacesSkillsAndDeletedEmployeesAreRemoved() {
+        Employee employee = new Employee();
+        employee.setId(2L);
+        employee.setSkills(new HashSet<>(Set.of(Skills.DOCKER)));
+        index.update(employee);
+
+        assertEquals(Set.of(Skills.DOCKER), index.skillsOf(2L));
+        assertEquals(List.of(1L), index.find(List.of(Skills.JAVA), true, 10));
+
+        employee.setDeleted(true);
+        index.update(employee);
+
+        assertEquals(List.of(3L), index.find(List.of(Skills.DOCKER), true, 10));
+    }
+
+    @Test
+    void sparseAndLargeIdsAreReturnedInAscendingOrder() {
+        index.rebuild(Map.of(
+                5_000_000_051L, Skills.JAVA.bit(),
+                101L, Skills.JAVA.bit()));
+        Employee employee = new Employee();
+        employee.setId(51L);
+        employee.setSkills(new HashSet<>(Set.of(Skills.JAVA)));
+        index.update(employee);
+
+        assertEquals(List.of(51L, 101L, 5_000_000_051L), index.find(List.of(Skills.JAVA), true, 10));
+        assertEquals(List.of(51L, 101L), index.find(List.of(Skills.JAVA), true, 2));
+    }
+
+    @Test
+    void changesDuringSnapshotReadAreAppliedOverSnapshot() {
+        Employee changed = new Employee();
+        changed.setId(1L);
+        changed.setSkills(new HashSet<>(Set.of(Skills.DOCKER)));
+
+        // Снимок прочитан до изменений: в нем у 1 еще JAVA+SPRING, а 2 не удален
+        index.rebuild(() -> {
+            Map<Long, Long> snapshot = Map.of(
+                    1L, Skills.maskOf(List.of(Skills.JAVA, Skills.SPRING)),
+                    2L, Skills.JAVA.bit());
+            index.update(changed);
+            index.remove(2L);
+            return snapshot;
+        });
+
+        assertEquals(Set.of(Skills.DOCKER), index.skillsOf(1L));
+        assertEquals(List.of(), index.find(List.of(Skills.JAVA), true, 10));
+        assertEquals(List.of(1L), index.find(List.of(), true, 10));
+    }
+
+    private static Employee employee(long id, Skills... skills) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setSkills(new HashSet<>(Set.of(skills)));
+        return employee;
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.service;
+
+import org.example.model.PhotoSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private PhotoCatalog catalog;
+    private ThumbnailService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ImageIO.write(new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB), "jpg",
+                directory.resolve("photo.jpg").toFile());
+        catalog = new PhotoCatalog(directory.toString());
+        catalog.start();
+        service = new ThumbnailService(catalog, 1, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.shutdown();
+        catalog.stop();
+    }
+
+    @Test
+    void variantPathKeepsFolderAndNormalizesFormat() {
+        assertEquals("/photos/abc-thumb.jpg", PhotoSize.THUMB.variantOf("/photos/abc.webp"));
+        assertEquals("/photos/abc-medium.png", PhotoSize.MEDIUM.variantOf("/photos/abc.gif"));
+        assertEquals("/photos/abc.jpg", PhotoSize.ORIGINAL.variantOf("/photos/abc.jpg"));
+        assertTrue(PhotoSize.isVariant("abc-thumb.jpg"));
+        assertFalse(PhotoSize.isVariant("abc.jpg"));
+    }
+
+    @Test
+    void scaleKeepsAspectRatioAndNeverEnlarges() {
+        BufferedImage scaled = ThumbnailService.scale(new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB), 128, false);
+        assertEquals(128, scaled.getWidth());
+        assertEquals(85, scaled.getHeight());
+
+        BufferedImage small = ThumbnailService.scale(new BufferedImage(50, 40, BufferedImage.TYPE_INT_RGB), 128, false);
+        assertEquals(50, small.getWidth());
+        assertEquals(40, small.getHeight());
+    }
+
+    @Test
+    void originalIsServedUntilVariantIsReady() throws InterruptedException {
+        assertEquals("/images/photo.jpg", service.resolve("/images/photo.jpg", PhotoSize.THUMB));
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!(catalog.exists("/images/photo-thumb.jpg") && catalog.exists("/images/photo-medium.jpg"))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals("/images/photo-thumb.jpg", service.resolve("/images/photo.jpg", PhotoSize.THUMB));
+        assertEquals(480, catalog.find("/images/photo-medium.jpg").orElseThrow().width());
+    }
+}
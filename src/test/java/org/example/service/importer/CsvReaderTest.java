@@ -0,0 +1,63 @@
+package org.example.service.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    private record Row(long number, List<String> cells) {
+    }
+
+    @Test
+    void quotedFieldsKeepDelimitersQuotesAndLineBreaks() throws IOException {
+        List<Row> rows = read("name,email,about\r\n" +
+                "\"Иванов, Иван\",ivan@example.com,\"Он сказал \"\"привет\"\"\"\r\n" +
+                "Anna,anna@example.com,\"две\nстроки\"\n" +
+                "Boris,boris@example.com,\n");
+
+        assertEquals(4, rows.size());
+        assertEquals(List.of("Иванов, Иван", "ivan@example.com", "Он сказал \"привет\""), rows.get(1).cells());
+        assertEquals(List.of("Anna", "anna@example.com", "две\nстроки"), rows.get(2).cells());
+        assertEquals(List.of("Boris", "boris@example.com", ""), rows.get(3).cells());
+    }
+
+    @Test
+    void rowNumbersCountPhysicalLinesAndSkipEmptyOnes() throws IOException {
+        List<Row> rows = read("name,email\n\nAnna,\"a\nb\"\nBoris,b@example.com");
+
+        assertEquals(List.of(1L, 3L, 5L), rows.stream().map(Row::number).toList());
+    }
+
+    @Test
+    void semicolonIsDetectedFromHeader() throws IOException {
+        List<Row> rows = read("имя;email;навыки\nАнна;anna@example.com;Java, Spring\n");
+
+        assertEquals(List.of("Анна", "anna@example.com", "Java, Spring"), rows.get(1).cells());
+    }
+
+    @Test
+    void headerDefinesColumnsByAnyKnownName() {
+        ImportHeader header = ImportHeader.of(List.of("ФИО", " E-mail ", "unknown", "Навыки"));
+        List<String> cells = List.of(" Анна ", "anna@example.com", "x", "");
+
+        assertEquals("Анна", header.value(cells, ImportHeader.Column.NAME));
+        assertEquals("anna@example.com", header.value(cells, ImportHeader.Column.EMAIL));
+        assertNull(header.value(cells, ImportHeader.Column.SKILLS));
+        assertNull(header.value(cells, ImportHeader.Column.PHONE));
+        assertThrows(IllegalArgumentException.class, () -> ImportHeader.of(List.of("name", "phone")));
+    }
+
+    private static List<Row> read(String csv) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        new CsvReader().read(new BufferedReader(new StringReader(csv)),
+                (number, cells) -> rows.add(new Row(number, cells)));
+        return rows;
+    }
+}